@@ -0,0 +1,105 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.avivcarmis.trafficante.benchmarks.BenchmarkServer;
+import io.github.avivcarmis.trafficante.benchmarks.Entities;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization and deserialization of the representative entities
+ * in each of the supported wire formats, see {@link BinaryFormatConfiguration}.
+ * Payload sizes are reported by JMH as the `payloadBytes` secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FormatBenchmark {
+
+    // Fields
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"flat", "nested", "large"})
+    public String entity;
+
+    private ObjectMapper _objectMapper;
+
+    private Object _value;
+
+    private byte[] _payload;
+
+    // Public
+
+    @Setup
+    public void setup() throws IOException {
+        // starts the server, which configures the naming strategy of all mappers
+        _objectMapper = BenchmarkServer.bean(ObjectMapper.class);
+        switch (format) {
+            case "smile":
+                _objectMapper = ObjectMapperConfiguration.forFormat(new SmileFactory());
+                break;
+            case "cbor":
+                _objectMapper = ObjectMapperConfiguration.forFormat(new CBORFactory());
+                break;
+        }
+        switch (entity) {
+            case "nested":
+                _value = Entities.nested();
+                break;
+            case "large":
+                _value = Entities.large();
+                break;
+            default:
+                _value = Entities.flat(1);
+        }
+        _payload = _objectMapper.writeValueAsBytes(_value);
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize payloadSize) throws IOException {
+        return _objectMapper.writeValueAsBytes(_value);
+    }
+
+    @Benchmark
+    public Object deserialize(PayloadSize payloadSize) throws IOException {
+        return _objectMapper.readValue(_payload, _value.getClass());
+    }
+
+    // Inner
+
+    /**
+     * Reports the size of the serialized entity next to the throughput
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        // Fields
+
+        public long payloadBytes;
+
+        // Public
+
+        @Setup(Level.Iteration)
+        public void setup(FormatBenchmark benchmark) {
+            payloadBytes = benchmark._payload.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.avivcarmis.trafficante.benchmarks.BenchmarkServer;
+import io.github.avivcarmis.trafficante.benchmarks.Entities;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures binding of query string parameters into a request entity,
+ * by a {@link QueryStringBinder} and by a generic conversion through Jackson as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QueryStringBindingBenchmark {
+
+    // Fields
+
+    private ObjectMapper _objectMapper;
+
+    private QueryStringBinder _binder;
+
+    private Map<String, String[]> _parameterMap;
+
+    private Map<String, String> _parameters;
+
+    // Public
+
+    @Setup
+    public void setup() {
+        _objectMapper = BenchmarkServer.bean(ObjectMapper.class);
+        _binder = QueryStringBinder.create(_objectMapper, Entities.Flat.class);
+        _parameters = Entities.flatParameters(1);
+        _parameterMap = new HashMap<>();
+        for (Map.Entry<String, String> parameter : _parameters.entrySet()) {
+            _parameterMap.put(parameter.getKey(), new String[]{parameter.getValue()});
+        }
+    }
+
+    @Benchmark
+    public Object binder() throws BadRequestException {
+        return _binder.bind(_parameterMap);
+    }
+
+    @Benchmark
+    public Object convertValue() {
+        return _objectMapper.convertValue(_parameters, Entities.Flat.class);
+    }
+
+}
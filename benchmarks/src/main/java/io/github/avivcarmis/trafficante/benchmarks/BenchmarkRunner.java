@@ -0,0 +1,33 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the given JMH command line options,
+ * always reporting allocation rate next to throughput.
+ * For example: `java -jar target/benchmarks.jar DispatchBenchmark -f 1`
+ */
+public class BenchmarkRunner {
+
+    // Static
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class);
+        if (!commandLineOptions.getJvmArgs().hasValue() && !System.getProperty("java.specification.version").startsWith("1.")) {
+            // Spring proxies require deep reflection on JDK 9 and above
+            options.jvmArgsAppend(
+                    "--add-opens=java.base/java.lang=ALL-UNNAMED",
+                    "--add-opens=java.base/java.util=ALL-UNNAMED"
+            );
+        }
+        new Runner(options.build()).run();
+    }
+
+}
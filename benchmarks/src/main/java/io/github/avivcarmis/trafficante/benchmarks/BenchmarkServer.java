@@ -0,0 +1,81 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import io.github.avivcarmis.trafficante.core.ServerEngine;
+import io.github.avivcarmis.trafficante.core.ServerNamingStrategy;
+import io.github.avivcarmis.trafficante.core.Trafficante;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.stereotype.Component;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Starts a single Trafficante server per benchmark JVM and exposes its application context.
+ * The server listens on a random port. Most benchmarks dispatch requests in process,
+ * others send them over the network using {@link #port()}.
+ */
+@Component
+public class BenchmarkServer implements ApplicationContextAware {
+
+    // Static
+
+    private static volatile ApplicationContext applicationContext;
+
+    private static volatile MockMvc mockMvc;
+
+    /**
+     * @return the application context of the server, starting it if not yet started
+     */
+    public static ApplicationContext context() {
+        return context(ServerEngine.TOMCAT);
+    }
+
+    /**
+     * @param engine the engine to start the server on, if not yet started
+     * @return the application context of the server, starting it if not yet started
+     */
+    public static synchronized ApplicationContext context(ServerEngine engine) {
+        if (applicationContext == null) {
+            Trafficante.start(
+                    Trafficante.Settings.builder(BenchmarkServer.class.getPackage().getName(), ServerNamingStrategy.SNAKE_CASE)
+                            .host("127.0.0.1")
+                            .port(0)
+                            .engine(engine)
+                            .build(),
+                    new String[]{"--logging.level.root=WARN"}
+            );
+        }
+        return applicationContext;
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public static int port() {
+        return ((EmbeddedWebApplicationContext) context()).getEmbeddedServletContainer().getPort();
+    }
+
+    /**
+     * @return a {@link MockMvc} dispatching requests to the server in process
+     */
+    public static synchronized MockMvc mockMvc() {
+        if (mockMvc == null) {
+            mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context()).build();
+        }
+        return mockMvc;
+    }
+
+    public static <T> T bean(Class<T> type) {
+        return context().getBean(type);
+    }
+
+    // Public
+
+    @Override
+    public void setApplicationContext(ApplicationContext context) {
+        applicationContext = context;
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import io.github.avivcarmis.trafficante.core.HttpMethodContentClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the classification of http methods by {@link HttpMethodContentClass}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContentClassBenchmark {
+
+    // Fields
+
+    @Param({"GET", "POST", "TRACE"})
+    public String method;
+
+    private RequestMethod _requestMethod;
+
+    private HttpMethod _httpMethod;
+
+    // Public
+
+    @Setup
+    public void setup() {
+        _requestMethod = RequestMethod.valueOf(method);
+        _httpMethod = HttpMethod.valueOf(method);
+    }
+
+    @Benchmark
+    public HttpMethodContentClass classifyRequestMethod() {
+        return HttpMethodContentClass.classify(_requestMethod);
+    }
+
+    @Benchmark
+    public HttpMethodContentClass classifyHttpMethod() {
+        return HttpMethodContentClass.classify(_httpMethod);
+    }
+
+}
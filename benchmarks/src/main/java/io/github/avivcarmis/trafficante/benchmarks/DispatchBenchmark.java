@@ -0,0 +1,100 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete requests dispatched in process through the DispatcherServlet:
+ * argument resolution, validation, invocation, wrapping and response serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DispatchBenchmark {
+
+    // Fields
+
+    private MockMvc _mockMvc;
+
+    private MockHttpServletRequestBuilder _getFlat;
+
+    private MockHttpServletRequestBuilder _postFlat;
+
+    private MockHttpServletRequestBuilder _postNested;
+
+    private MockHttpServletRequestBuilder _postLarge;
+
+    private MockHttpServletRequestBuilder _postInvalid;
+
+    private MockHttpServletRequestBuilder _postFailing;
+
+    // Public
+
+    @Setup
+    public void setup() throws Exception {
+        _mockMvc = BenchmarkServer.mockMvc();
+        ObjectMapper objectMapper = BenchmarkServer.bean(ObjectMapper.class);
+        _getFlat = MockMvcRequestBuilders.get("/get_flat");
+        for (Map.Entry<String, String> parameter : Entities.flatParameters(1).entrySet()) {
+            _getFlat.param(parameter.getKey(), parameter.getValue());
+        }
+        _postFlat = post("/post_flat", objectMapper.writeValueAsBytes(Entities.flat(1)));
+        _postNested = post("/post_nested", objectMapper.writeValueAsBytes(Entities.nested()));
+        _postLarge = post("/post_large", objectMapper.writeValueAsBytes(Entities.large()));
+        _postInvalid = post("/post_flat", "{\"user_name\":\"missing id\"}".getBytes("UTF-8"));
+        _postFailing = post("/post_failing", objectMapper.writeValueAsBytes(Entities.flat(1)));
+    }
+
+    @Benchmark
+    public MvcResult getFlat() throws Exception {
+        return _mockMvc.perform(_getFlat).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postFlat() throws Exception {
+        return _mockMvc.perform(_postFlat).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postNested() throws Exception {
+        return _mockMvc.perform(_postNested).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postLarge() throws Exception {
+        return _mockMvc.perform(_postLarge).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postInvalid() throws Exception {
+        return _mockMvc.perform(_postInvalid).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postFailing() throws Exception {
+        return _mockMvc.perform(_postFailing).andReturn();
+    }
+
+    // Static
+
+    private static MockHttpServletRequestBuilder post(String path, byte[] body) {
+        return MockMvcRequestBuilders.post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+}
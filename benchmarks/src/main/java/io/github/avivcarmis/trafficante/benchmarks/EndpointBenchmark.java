@@ -0,0 +1,84 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link io.github.avivcarmis.trafficante.core.BasicEndpoint#doAPICall(Object)} in isolation,
+ * with an already bound request: validation, invocation and wrapping, excluding serialization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EndpointBenchmark {
+
+    // Fields
+
+    private Endpoints.PostFlat _postFlat;
+
+    private Endpoints.PostNested _postNested;
+
+    private Endpoints.PostLarge _postLarge;
+
+    private Endpoints.PostFailing _postFailing;
+
+    private Entities.Flat _flat;
+
+    private Entities.Flat _invalid;
+
+    private Entities.Nested _nested;
+
+    private Entities.Large _large;
+
+    // Public
+
+    @Setup
+    public void setup() {
+        _postFlat = BenchmarkServer.bean(Endpoints.PostFlat.class);
+        _postNested = BenchmarkServer.bean(Endpoints.PostNested.class);
+        _postLarge = BenchmarkServer.bean(Endpoints.PostLarge.class);
+        _postFailing = BenchmarkServer.bean(Endpoints.PostFailing.class);
+        _flat = Entities.flat(1);
+        _invalid = new Entities.Flat();
+        _nested = Entities.nested();
+        _large = Entities.large();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> flat() {
+        return _postFlat.doAPICall(_flat);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> nested() {
+        return _postNested.doAPICall(_nested);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> large() {
+        return _postLarge.doAPICall(_large);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> invalid() {
+        return _postFlat.doAPICall(_invalid);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> failing() {
+        return _postFailing.doAPICall(_flat);
+    }
+
+}
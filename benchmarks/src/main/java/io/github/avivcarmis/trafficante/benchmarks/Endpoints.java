@@ -0,0 +1,139 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import io.github.avivcarmis.trafficante.core.BasicEndpoint;
+import io.github.avivcarmis.trafficante.core.BasicErrorHandler;
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * The endpoints of the benchmark server.
+ * Each endpoint echoes its request, so that the measured cost is the framework pipeline only.
+ */
+public class Endpoints {
+
+    // Inner
+
+    public static class Response<T> {
+
+        private final boolean success;
+
+        private final T result;
+
+        private final String error;
+
+        Response(boolean success, T result, String error) {
+            this.success = success;
+            this.result = result;
+            this.error = error;
+        }
+
+    }
+
+    public static abstract class Endpoint<REQ> extends BasicEndpoint<REQ, REQ, Response<REQ>> {
+
+        Endpoint(RequestMethod httpMethod) {
+            super(httpMethod, false);
+        }
+
+        @Override
+        protected REQ handle(REQ request) throws APIException {
+            return request;
+        }
+
+        @Override
+        protected Response<REQ> wrapResponse(REQ response) {
+            return new Response<>(true, response, null);
+        }
+
+        @Override
+        protected Response<REQ> wrapFailure(Throwable t) {
+            return new Response<>(false, null, t.getMessage());
+        }
+
+    }
+
+    public static class GetFlat extends Endpoint<Entities.Flat> {
+
+        public GetFlat() {
+            super(RequestMethod.GET);
+        }
+
+    }
+
+    public static class PostFlat extends Endpoint<Entities.Flat> {
+
+        public PostFlat() {
+            super(RequestMethod.POST);
+        }
+
+    }
+
+    public static class PostNested extends Endpoint<Entities.Nested> {
+
+        public PostNested() {
+            super(RequestMethod.POST);
+        }
+
+    }
+
+    public static class PostLarge extends Endpoint<Entities.Large> {
+
+        public PostLarge() {
+            super(RequestMethod.POST);
+        }
+
+    }
+
+    public static class PostFailing extends Endpoint<Entities.Flat> {
+
+        public PostFailing() {
+            super(RequestMethod.POST);
+        }
+
+        @Override
+        protected Entities.Flat handle(Entities.Flat request) throws APIException {
+            throw new IllegalStateException("failing by design");
+        }
+
+    }
+
+    public static class PostRejected extends Endpoint<Entities.Flat> {
+
+        public PostRejected() {
+            super(RequestMethod.POST);
+        }
+
+        @Override
+        protected Entities.Flat handle(Entities.Flat request) throws APIException {
+            throw new APIException("rejected by design", HttpStatus.CONFLICT);
+        }
+
+    }
+
+    public static class PostRejectedConstant extends Endpoint<Entities.Flat> {
+
+        private static final ConstantAPIException REJECTED = new ConstantAPIException("rejected by design", HttpStatus.CONFLICT);
+
+        public PostRejectedConstant() {
+            super(RequestMethod.POST);
+        }
+
+        @Override
+        protected Entities.Flat handle(Entities.Flat request) throws APIException {
+            throw REJECTED;
+        }
+
+    }
+
+    public static class ErrorHandler extends BasicErrorHandler<Response<?>> {
+
+        @Override
+        protected Response<?> wrapFailure(Throwable t) {
+            return new Response<>(false, null, t.getMessage());
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import io.github.avivcarmis.trafficante.core.Required;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Representative request entities: flat, deeply nested and large collections
+ */
+public class Entities {
+
+    // Constants
+
+    public static final int NESTING_DEPTH = 5;
+
+    public static final int LARGE_COLLECTION_SIZE = 1000;
+
+    // Static
+
+    public static Flat flat(int id) {
+        Flat flat = new Flat();
+        flat.userId = id;
+        flat.userName = "user" + id;
+        flat.email = "user" + id + "@example.com";
+        flat.createdAt = 1494547200000L + id;
+        flat.score = id / 7.0;
+        flat.active = id % 2 == 0;
+        flat.color = Color.values()[id % Color.values().length];
+        return flat;
+    }
+
+    /**
+     * @return the query string parameters of {@link #flat(int)}, named by the snake case strategy
+     */
+    public static Map<String, String> flatParameters(int id) {
+        Flat flat = flat(id);
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("user_id", String.valueOf(flat.userId));
+        result.put("user_name", flat.userName);
+        result.put("email", flat.email);
+        result.put("created_at", String.valueOf(flat.createdAt));
+        result.put("score", String.valueOf(flat.score));
+        result.put("active", String.valueOf(flat.active));
+        result.put("color", flat.color.name());
+        return result;
+    }
+
+    public static Nested nested() {
+        Object inner = flat(NESTING_DEPTH);
+        for (int i = NESTING_DEPTH - 1; i > 0; i--) {
+            Level<Object> level = new Level<>();
+            level.payload = flat(i);
+            level.inner = inner;
+            inner = level;
+        }
+        Nested nested = new Nested();
+        Level<Level<Level<Level<Level<Flat>>>>> root = nested;
+        root.payload = flat(0);
+        //noinspection unchecked
+        root.inner = (Level<Level<Level<Level<Flat>>>>) inner;
+        return nested;
+    }
+
+    public static Large large() {
+        Large large = new Large();
+        large.items = new ArrayList<>(LARGE_COLLECTION_SIZE);
+        for (int i = 0; i < LARGE_COLLECTION_SIZE; i++) {
+            large.items.add(flat(i));
+        }
+        large.tags = new ArrayList<>(LARGE_COLLECTION_SIZE);
+        for (int i = 0; i < LARGE_COLLECTION_SIZE; i++) {
+            large.tags.add("tag" + i);
+        }
+        return large;
+    }
+
+    // Inner
+
+    public enum Color {RED, GREEN, BLUE}
+
+    public static class Flat {
+
+        @Required
+        private Integer userId;
+
+        @Required
+        private String userName;
+
+        private String email;
+
+        private Long createdAt;
+
+        private Double score;
+
+        private Boolean active;
+
+        private Color color;
+
+    }
+
+    public static class Level<T> {
+
+        @Required
+        private Flat payload;
+
+        @Required
+        private T inner;
+
+    }
+
+    public static class Nested extends Level<Level<Level<Level<Level<Flat>>>>> {}
+
+    public static class Large {
+
+        @Required
+        private List<Flat> items;
+
+        private List<String> tags;
+
+    }
+
+}
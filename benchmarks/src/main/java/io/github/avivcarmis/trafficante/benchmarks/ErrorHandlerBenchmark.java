@@ -0,0 +1,54 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.RequestDispatcher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the error path of requests that cannot be handled by an endpoint,
+ * through {@link io.github.avivcarmis.trafficante.core.BasicErrorHandler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ErrorHandlerBenchmark {
+
+    // Fields
+
+    private Endpoints.ErrorHandler _errorHandler;
+
+    private ObjectMapper _objectMapper;
+
+    private MockHttpServletRequest _notFound;
+
+    // Public
+
+    @Setup
+    public void setup() {
+        _errorHandler = BenchmarkServer.bean(Endpoints.ErrorHandler.class);
+        _objectMapper = BenchmarkServer.bean(ObjectMapper.class);
+        _notFound = new MockHttpServletRequest("GET", "/missing");
+        _notFound.setAttribute(RequestDispatcher.ERROR_STATUS_CODE, 404);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handle() {
+        return _errorHandler.handleError(_notFound);
+    }
+
+    @Benchmark
+    public byte[] handleAndSerialize() throws Exception {
+        return _objectMapper.writeValueAsBytes(_errorHandler.handleError(_notFound).getBody());
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete failed requests dispatched in process, from binding to the serialized response:
+ * invalid requests, business failures thrown by endpoints and unexpected failures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FailureBenchmark {
+
+    // Fields
+
+    private MockMvc _mockMvc;
+
+    private MockHttpServletRequestBuilder _postInvalid;
+
+    private MockHttpServletRequestBuilder _postRejected;
+
+    private MockHttpServletRequestBuilder _postRejectedConstant;
+
+    private MockHttpServletRequestBuilder _postFailing;
+
+    // Public
+
+    @Setup
+    public void setup() throws Exception {
+        _mockMvc = BenchmarkServer.mockMvc();
+        byte[] flat = BenchmarkServer.bean(ObjectMapper.class).writeValueAsBytes(Entities.flat(1));
+        _postInvalid = post("/post_flat", "{\"user_name\":\"missing id\"}".getBytes("UTF-8"));
+        _postRejected = post("/post_rejected", flat);
+        _postRejectedConstant = post("/post_rejected_constant", flat);
+        _postFailing = post("/post_failing", flat);
+    }
+
+    /**
+     * A request failing validation
+     */
+    @Benchmark
+    public MvcResult postInvalid() throws Exception {
+        return _mockMvc.perform(_postInvalid).andReturn();
+    }
+
+    /**
+     * A new {@link io.github.avivcarmis.trafficante.exceptions.APIException} thrown by the endpoint
+     */
+    @Benchmark
+    public MvcResult postRejected() throws Exception {
+        return _mockMvc.perform(_postRejected).andReturn();
+    }
+
+    /**
+     * A shared {@link io.github.avivcarmis.trafficante.exceptions.ConstantAPIException} thrown by the endpoint
+     */
+    @Benchmark
+    public MvcResult postRejectedConstant() throws Exception {
+        return _mockMvc.perform(_postRejectedConstant).andReturn();
+    }
+
+    /**
+     * An unexpected exception thrown by the endpoint, responded as an internal server error
+     */
+    @Benchmark
+    public MvcResult postFailing() throws Exception {
+        return _mockMvc.perform(_postFailing).andReturn();
+    }
+
+    // Static
+
+    private static MockHttpServletRequestBuilder post(String path, byte[] body) {
+        return MockMvcRequestBuilders.post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+}
@@ -0,0 +1,119 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.github.avivcarmis.trafficante.adapters.spring.ObjectMapperConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading request entities and writing wrapped responses through the JSON message converter,
+ * against the reader and writer prebuilt for the types of an endpoint, with and without Afterburner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonCodecBenchmark {
+
+    // Fields
+
+    @Param({"false", "true"})
+    public boolean afterburner;
+
+    @Param({"flat", "nested", "large"})
+    public String entity;
+
+    private MappingJackson2HttpMessageConverter _converter;
+
+    private ObjectMapper _objectMapper;
+
+    private ObjectReader _reader;
+
+    private ObjectWriter _writer;
+
+    private Class<?> _requestClass;
+
+    private Endpoints.Response<?> _response;
+
+    private byte[] _payload;
+
+    // Public
+
+    @Setup
+    public void setup() throws IOException {
+        // starts the server, which holds the settings the object mapper is configured by
+        BenchmarkServer.context();
+        _objectMapper = new ObjectMapper();
+        new ObjectMapperConfiguration().configure(_objectMapper);
+        if (afterburner) {
+            _objectMapper.registerModule(new AfterburnerModule());
+        }
+        _converter = new MappingJackson2HttpMessageConverter(_objectMapper);
+        Object value;
+        switch (entity) {
+            case "nested":
+                value = Entities.nested();
+                break;
+            case "large":
+                value = Entities.large();
+                break;
+            default:
+                value = Entities.flat(1);
+        }
+        _requestClass = value.getClass();
+        _response = new Endpoints.Response<>(true, value, null);
+        _payload = _objectMapper.writeValueAsBytes(value);
+        JavaType responseType = _objectMapper.getTypeFactory()
+                .constructParametricType(Endpoints.Response.class, _requestClass);
+        _reader = _objectMapper.readerFor(_requestClass);
+        _writer = _objectMapper.writerFor(responseType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Benchmark
+    public Object converterRead() throws IOException {
+        return _converter.read(_requestClass, null, new MockHttpInputMessage(_payload));
+    }
+
+    @Benchmark
+    public Object prebuiltRead() throws IOException {
+        return _reader.readValue(new ByteArrayInputStream(_payload));
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage converterWrite() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        _converter.write(_response, Endpoints.Response.class, MediaType.APPLICATION_JSON_UTF8, output);
+        return output;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage prebuiltWrite() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        JsonGenerator generator = _objectMapper.getFactory().createGenerator(output.getBody(), JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        _writer.writeValue(generator, _response);
+        generator.close();
+        return output;
+    }
+
+}
@@ -0,0 +1,36 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import io.github.avivcarmis.trafficante.core.ServerNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of names by the snake case naming strategy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NamingBenchmark {
+
+    // Fields
+
+    private final ServerNamingStrategy.ImprovedSnakeCase _snakeCase = new ServerNamingStrategy.ImprovedSnakeCase("_");
+
+    @Param({"userId", "myXMLParser", "_privateField", "GetUserByIdAndEmail2"})
+    public String name;
+
+    // Public
+
+    @Benchmark
+    public String snakeCaseTranslate() {
+        return _snakeCase.translate(name);
+    }
+
+}
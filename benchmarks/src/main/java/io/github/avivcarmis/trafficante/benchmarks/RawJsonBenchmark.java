@@ -0,0 +1,68 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.avivcarmis.trafficante.core.RawJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures responding with content which is already JSON, e.g. read from a database:
+ * binding it to an entity and serializing the wrapped entity, against wrapping it as {@link RawJson}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RawJsonBenchmark {
+
+    // Fields
+
+    @Param({"flat", "nested", "large"})
+    public String entity;
+
+    private ObjectMapper _objectMapper;
+
+    private Class<?> _entityClass;
+
+    private byte[] _content;
+
+    // Public
+
+    @Setup
+    public void setup() throws IOException {
+        _objectMapper = BenchmarkServer.bean(ObjectMapper.class);
+        Object value;
+        switch (entity) {
+            case "nested":
+                value = Entities.nested();
+                break;
+            case "large":
+                value = Entities.large();
+                break;
+            default:
+                value = Entities.flat(1);
+        }
+        _entityClass = value.getClass();
+        _content = _objectMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] bound() throws IOException {
+        Object result = _objectMapper.readValue(_content, _entityClass);
+        return _objectMapper.writeValueAsBytes(new Endpoints.Response<>(true, result, null));
+    }
+
+    @Benchmark
+    public byte[] raw() throws IOException {
+        return _objectMapper.writeValueAsBytes(new Endpoints.Response<>(true, RawJson.of(_content), null));
+    }
+
+}
@@ -0,0 +1,104 @@
+package io.github.avivcarmis.trafficante.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.avivcarmis.trafficante.core.ServerEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete requests sent over keep-alive connections to a server running on each engine.
+ * Reports throughput, and the latency distribution of the requests including p99.
+ * Since a JVM runs a single server, the engines must be measured in separate forks, i.e. `-f` of at least 1.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class ServerEngineBenchmark {
+
+    // Fields
+
+    @Param({"TOMCAT", "JETTY", "UNDERTOW"})
+    public ServerEngine engine;
+
+    private URL _getFlat;
+
+    private URL _postFlat;
+
+    private byte[] _postFlatBody;
+
+    // Public
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkServer.context(engine);
+        String base = "http://127.0.0.1:" + BenchmarkServer.port();
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> parameter : Entities.flatParameters(1).entrySet()) {
+            query.append(query.length() == 0 ? '?' : '&')
+                    .append(parameter.getKey())
+                    .append('=')
+                    .append(URLEncoder.encode(parameter.getValue(), "UTF-8"));
+        }
+        _getFlat = new URL(base + "/get_flat" + query);
+        _postFlat = new URL(base + "/post_flat");
+        _postFlatBody = BenchmarkServer.bean(ObjectMapper.class).writeValueAsBytes(Entities.flat(1));
+    }
+
+    @Benchmark
+    public byte[] getFlat() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) _getFlat.openConnection();
+        return read(connection);
+    }
+
+    @Benchmark
+    public byte[] postFlat() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) _postFlat.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setFixedLengthStreamingMode(_postFlatBody.length);
+        try (OutputStream stream = connection.getOutputStream()) {
+            stream.write(_postFlatBody);
+        }
+        return read(connection);
+    }
+
+    // Static
+
+    /**
+     * Reads the response completely and closes its stream, so that the connection is kept alive for the next request
+     */
+    private static byte[] read(HttpURLConnection connection) throws IOException {
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("unexpected response status " + connection.getResponseCode());
+        }
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream stream = connection.getInputStream()) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                result.write(buffer, 0, read);
+            }
+        }
+        return result.toByteArray();
+    }
+
+}
@@ -0,0 +1,158 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import io.github.avivcarmis.trafficante.benchmarks.Entities;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Required} field validation in isolation, using cached validation plans,
+ * against the reflective validation which lists and reads every field on each call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationBenchmark {
+
+    // Fields
+
+    @Param({"plans", "reflective"})
+    public String implementation;
+
+    private Validator _validator;
+
+    private Entities.Flat _flat;
+
+    private Entities.Flat _invalid;
+
+    private Entities.Nested _nested;
+
+    private Entities.Large _large;
+
+    // Public
+
+    @Setup
+    public void setup() {
+        RequestValidator validator = RequestValidator.of(ServerNamingStrategy.SNAKE_CASE);
+        _validator = implementation.equals("reflective") ?
+                new ReflectiveValidator(ServerNamingStrategy.SNAKE_CASE) :
+                validator::validate;
+        _flat = Entities.flat(1);
+        _invalid = new Entities.Flat();
+        _nested = Entities.nested();
+        _large = Entities.large();
+    }
+
+    @Benchmark
+    public Object flat() throws BadRequestException {
+        _validator.validate(_flat);
+        return _flat;
+    }
+
+    @Benchmark
+    public Object nested() throws BadRequestException {
+        _validator.validate(_nested);
+        return _nested;
+    }
+
+    @Benchmark
+    public Object large() throws BadRequestException {
+        _validator.validate(_large);
+        return _large;
+    }
+
+    @Benchmark
+    public Object invalid() {
+        try {
+            _validator.validate(_invalid);
+            return _invalid;
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+
+    // Inner
+
+    private interface Validator {
+
+        void validate(Object toValidate) throws BadRequestException;
+
+    }
+
+    /**
+     * The validation performed before validation plans were introduced
+     */
+    private static class ReflectiveValidator implements Validator {
+
+        // Fields
+
+        private final PropertyNamingStrategy _strategy;
+
+        // Constructors
+
+        private ReflectiveValidator(PropertyNamingStrategy strategy) {
+            _strategy = strategy;
+        }
+
+        // Public
+
+        @Override
+        public void validate(Object toValidate) throws BadRequestException {
+            for (Field field : listClassFields(toValidate.getClass())) {
+                validateField(toValidate, field);
+            }
+        }
+
+        // Private
+
+        private void validateField(Object ownerObject, Field field) throws BadRequestException {
+            Required[] annotations = field.getAnnotationsByType(Required.class);
+            if (annotations == null || annotations.length == 0) {
+                return;
+            }
+            try {
+                field.setAccessible(true);
+                Object value = field.get(ownerObject);
+                if (value == null) {
+                    String name = field.getName();
+                    if (_strategy != null) {
+                        name = _strategy.nameForField(null, null, field.getName());
+                    }
+                    throw new BadRequestException("field `" + name + "` is required");
+                }
+                else {
+                    validate(value);
+                }
+            } catch (IllegalAccessException ignored) {}
+        }
+
+        private static List<Field> listClassFields(Class<?> startClass) {
+            List<Field> result = new ArrayList<>();
+            Class<?> currentClass = startClass;
+            while (currentClass != null && !currentClass.equals(Object.class)) {
+                for (Field field : currentClass.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        result.add(field);
+                    }
+                }
+                currentClass = currentClass.getSuperclass();
+            }
+            return result;
+        }
+
+    }
+
+}
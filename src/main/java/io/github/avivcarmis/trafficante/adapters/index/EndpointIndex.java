@@ -0,0 +1,130 @@
+package io.github.avivcarmis.trafficante.adapters.index;
+
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The endpoint classes indexed at compile time by the {@link EndpointIndexProcessor},
+ * merged from all classpath roots containing an index.
+ *
+ * An index is authoritative only for the classpath root it was compiled into,
+ * so classes of roots compiled without the processor are never considered missing from it.
+ */
+public class EndpointIndex {
+
+    // Constants
+
+    /**
+     * The location of the index within a classpath root, listing the binary name of a class per line
+     */
+    public static final String LOCATION = "META-INF/trafficante/endpoints.idx";
+
+    // Fields
+
+    private final List<String> _roots;
+
+    private final Set<String> _classNames;
+
+    // Constructors
+
+    private EndpointIndex(List<String> roots, Set<String> classNames) {
+        _roots = roots;
+        _classNames = classNames;
+    }
+
+    // Public
+
+    /**
+     * @return whether no classpath root contains an index
+     */
+    public boolean isEmpty() {
+        return _roots.isEmpty();
+    }
+
+    /**
+     * @param classFile the class file of a class
+     * @return whether the class file belongs to a classpath root containing an index
+     */
+    public boolean covers(Resource classFile) {
+        if (_roots.isEmpty()) {
+            return false;
+        }
+        String location;
+        try {
+            location = classFile.getURL().toString();
+        } catch (IOException e) {
+            return false;
+        }
+        for (String root : _roots) {
+            if (location.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param className the binary name of a class
+     * @return whether the class is indexed
+     */
+    public boolean contains(String className) {
+        return _classNames.contains(className);
+    }
+
+    // Static
+
+    /**
+     * Reads and merges the indices of all classpath roots
+     * @param classLoader the class loader to read indices with
+     * @return the merged index, empty if none was found or it could not be read
+     */
+    public static EndpointIndex load(ClassLoader classLoader) {
+        List<String> roots = new ArrayList<>();
+        Set<String> classNames = new HashSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                String location = url.toString();
+                roots.add(location.substring(0, location.length() - LOCATION.length()));
+                try (InputStream stream = url.openStream()) {
+                    classNames.addAll(read(stream));
+                }
+            }
+        } catch (IOException e) {
+            return new EndpointIndex(Collections.emptyList(), Collections.emptySet());
+        }
+        return new EndpointIndex(roots, classNames);
+    }
+
+    /**
+     * @param stream the content of an index
+     * @return the class names listed in the index, ignoring blank lines and `#` comments
+     * @throws IOException in case reading has failed
+     */
+    static Set<String> read(InputStream stream) throws IOException {
+        Set<String> result = new HashSet<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+}
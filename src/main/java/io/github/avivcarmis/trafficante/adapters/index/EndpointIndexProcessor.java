@@ -0,0 +1,185 @@
+package io.github.avivcarmis.trafficante.adapters.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the {@link EndpointIndex} of the compiled sources: the binary names of all concrete
+ * endpoint and error handler classes, which are registered as beans without loading every
+ * class found by the component scan.
+ *
+ * Discovered by javac from the classpath. On incremental compilations, entries of classes which
+ * were not recompiled are kept, so an entry may outlive its class, but a class is never missing.
+ * Depends on nothing but the JDK, so it may run from an annotation processor path of its own.
+ */
+@SupportedAnnotationTypes("*")
+public class EndpointIndexProcessor extends AbstractProcessor {
+
+    // Constants
+
+    private static final String[] SUPPORTED_CLASS_NAMES = {
+            "io.github.avivcarmis.trafficante.core.BasicEndpoint",
+            "io.github.avivcarmis.trafficante.core.BasicErrorHandler"
+    };
+
+    // Fields
+
+    private final List<TypeMirror> _supportedTypes;
+
+    private final Set<String> _processed;
+
+    private final Set<String> _indexed;
+
+    // Constructors
+
+    public EndpointIndexProcessor() {
+        _supportedTypes = new ArrayList<>();
+        _processed = new HashSet<>();
+        _indexed = new TreeSet<>();
+    }
+
+    // Public
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        for (String className : SUPPORTED_CLASS_NAMES) {
+            TypeElement element = processingEnv.getElementUtils().getTypeElement(className);
+            if (element != null) {
+                _supportedTypes.add(processingEnv.getTypeUtils().erasure(element.asType()));
+            }
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (_supportedTypes.isEmpty()) {
+            return false;
+        }
+        if (roundEnv.processingOver()) {
+            write();
+        }
+        else {
+            for (Element element : roundEnv.getRootElements()) {
+                collect(element);
+            }
+        }
+        return false;
+    }
+
+    // Private
+
+    private void collect(Element element) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        _processed.add(className);
+        if (isEndpoint(type)) {
+            _indexed.add(className);
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            collect(enclosed);
+        }
+    }
+
+    /**
+     * @return whether the type is a class which may be instantiated as a bean, extending a supported class
+     */
+    private boolean isEndpoint(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL &&
+                (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erasure = types.erasure(type.asType());
+        for (TypeMirror supportedType : _supportedTypes) {
+            if (types.isSubtype(erasure, supportedType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write() {
+        Set<String> result = new TreeSet<>(_indexed);
+        for (String className : readPrevious()) {
+            if (!_processed.contains(className)) {
+                result.add(className);
+            }
+        }
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", EndpointIndex.LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String className : result) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.WARNING,
+                    "could not write " + EndpointIndex.LOCATION + ": " + e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * @return the entries of the index written by a previous compilation, if any
+     */
+    private Set<String> readPrevious() {
+        Set<String> result = new HashSet<>();
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", EndpointIndex.LOCATION);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        result.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // no previous index
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.github.avivcarmis.trafficante.adapters.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of a single endpoint.
+ * Latencies are reported in milliseconds.
+ */
+public interface EndpointMetricsMXBean {
+
+    String getApiPath();
+
+    long getRequestCount();
+
+    Map<Integer, Long> getStatusCounts();
+
+    Map<String, Long> getFailureCounts();
+
+    long getCoalescedCount();
+
+    long getCompressedCount();
+
+    double getCompressionRatio();
+
+    double getCompressionCpuMillis();
+
+    double getLatencyMeanMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP90Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyP999Millis();
+
+    double getLatencyMaxMillis();
+
+}
@@ -0,0 +1,105 @@
+package io.github.avivcarmis.trafficante.adapters.metrics;
+
+import io.github.avivcarmis.trafficante.core.EndpointMetrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes {@link EndpointMetrics} as an {@link EndpointMetricsMXBean}
+ */
+class EndpointMetricsView implements EndpointMetricsMXBean {
+
+    // Constants
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // Fields
+
+    private final EndpointMetrics _metrics;
+
+    // Constructors
+
+    EndpointMetricsView(EndpointMetrics metrics) {
+        _metrics = metrics;
+    }
+
+    // Public
+
+    @Override
+    public String getApiPath() {
+        return _metrics.getApiPath();
+    }
+
+    @Override
+    public long getRequestCount() {
+        return _metrics.getLatency().snapshot().getCount();
+    }
+
+    @Override
+    public Map<Integer, Long> getStatusCounts() {
+        return _metrics.getStatusCounts();
+    }
+
+    @Override
+    public Map<String, Long> getFailureCounts() {
+        return _metrics.getFailureCounts();
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return _metrics.getCoalescedCount();
+    }
+
+    @Override
+    public long getCompressedCount() {
+        return _metrics.getCompressedCount();
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        return _metrics.getCompressionRatio();
+    }
+
+    @Override
+    public double getCompressionCpuMillis() {
+        return _metrics.getCompressionCpuNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLatencyMeanMillis() {
+        return _metrics.getLatency().snapshot().getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return quantileMillis(0.5);
+    }
+
+    @Override
+    public double getLatencyP90Millis() {
+        return quantileMillis(0.9);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return quantileMillis(0.99);
+    }
+
+    @Override
+    public double getLatencyP999Millis() {
+        return quantileMillis(0.999);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return _metrics.getLatency().snapshot().getMax() / NANOS_PER_MILLI;
+    }
+
+    // Private
+
+    private double quantileMillis(double quantile) {
+        return _metrics.getLatency().snapshot().getValueAtQuantile(quantile) / NANOS_PER_MILLI;
+    }
+
+}
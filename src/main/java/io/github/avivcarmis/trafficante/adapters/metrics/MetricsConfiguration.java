@@ -0,0 +1,121 @@
+package io.github.avivcarmis.trafficante.adapters.metrics;
+
+import io.github.avivcarmis.trafficante.adapters.spring.EndpointDescriptor;
+import io.github.avivcarmis.trafficante.adapters.spring.EndpointRegistry;
+import io.github.avivcarmis.trafficante.core.BasicEndpoint;
+import io.github.avivcarmis.trafficante.core.BulkheadRegistry;
+import io.github.avivcarmis.trafficante.core.ConcurrencyLimiterRegistry;
+import io.github.avivcarmis.trafficante.core.Trafficante;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Publishes the metrics of all endpoints.
+ * Registers an {@link EndpointMetricsMXBean} per endpoint when JMX is enabled, and serves
+ * all metrics in Prometheus text format on the path of the `trafficante.metrics.path`
+ * property (`/metrics` by default) when `trafficante.metrics.enabled` is true.
+ * Since the metrics servlet precedes the endpoints, startup fails if an endpoint is mapped to its path.
+ * The endpoints are collected from the {@link EndpointRegistry} once, and shared by scrapes and JMX.
+ */
+@Configuration
+public class MetricsConfiguration implements SmartInitializingSingleton {
+
+    // Constants
+
+    private static final String OBJECT_NAME_DOMAIN = "io.github.avivcarmis.trafficante";
+
+    // Fields
+
+    private final EndpointRegistry _endpointRegistry;
+
+    private final BulkheadRegistry _bulkheadRegistry;
+
+    private final ConcurrencyLimiterRegistry _concurrencyLimiterRegistry;
+
+    private final boolean _servletEnabled;
+
+    private final String _servletPath;
+
+    private volatile Collection<BasicEndpoint> _endpoints;
+
+    // Constructors
+
+    @Autowired
+    public MetricsConfiguration(EndpointRegistry endpointRegistry,
+                                BulkheadRegistry bulkheadRegistry,
+                                ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                                @Value("${trafficante.metrics.enabled:false}") boolean servletEnabled,
+                                @Value("${trafficante.metrics.path:/metrics}") String servletPath) {
+        _endpointRegistry = endpointRegistry;
+        _bulkheadRegistry = bulkheadRegistry;
+        _concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+        _servletEnabled = servletEnabled;
+        _servletPath = servletPath;
+    }
+
+    // Public
+
+    @Bean
+    @ConditionalOnProperty(name = "trafficante.metrics.enabled")
+    public ServletRegistrationBean prometheusMetricsServlet() {
+        ServletRegistrationBean registration = new ServletRegistrationBean(
+                new PrometheusMetricsServlet(this::endpoints, _bulkheadRegistry, _concurrencyLimiterRegistry), _servletPath);
+        registration.setName("prometheusMetricsServlet");
+        return registration;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (_servletEnabled && _endpointRegistry.containsPath(_servletPath)) {
+            throw new IllegalStateException("metrics path " + _servletPath + " collides with an endpoint, " +
+                    "set trafficante.metrics.path to another path");
+        }
+        if (!Trafficante.getSettings().isEnableJMX()) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (BasicEndpoint endpoint : endpoints()) {
+            try {
+                ObjectName name = new ObjectName(OBJECT_NAME_DOMAIN + ":type=Endpoint,name=" +
+                        ObjectName.quote(endpoint.getMetrics().getApiPath()));
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new EndpointMetricsView(endpoint.getMetrics()), name);
+                }
+            } catch (JMException e) {
+                throw new RuntimeException("could not register metrics of " + endpoint.getClass().getName(), e);
+            }
+        }
+    }
+
+    // Private
+
+    /**
+     * @return all endpoints, collected from the registry when first called
+     */
+    private Collection<BasicEndpoint> endpoints() {
+        Collection<BasicEndpoint> endpoints = _endpoints;
+        if (endpoints == null) {
+            List<BasicEndpoint> result = new ArrayList<>();
+            for (EndpointDescriptor descriptor : _endpointRegistry.getAll()) {
+                result.add(descriptor.getEndpoint());
+            }
+            endpoints = _endpoints = Collections.unmodifiableList(result);
+        }
+        return endpoints;
+    }
+
+}
@@ -0,0 +1,282 @@
+package io.github.avivcarmis.trafficante.adapters.metrics;
+
+import io.github.avivcarmis.trafficante.core.BasicEndpoint;
+import io.github.avivcarmis.trafficante.core.Bulkhead;
+import io.github.avivcarmis.trafficante.core.BulkheadRegistry;
+import io.github.avivcarmis.trafficante.core.ConcurrencyLimiter;
+import io.github.avivcarmis.trafficante.core.ConcurrencyLimiterRegistry;
+import io.github.avivcarmis.trafficante.core.EndpointMetrics;
+import io.github.avivcarmis.trafficante.core.LatencyHistogram;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serves the metrics of all endpoints, response caches, compressions and bulkheads in Prometheus text exposition format
+ */
+class PrometheusMetricsServlet extends HttpServlet {
+
+    // Constants
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    // Fields
+
+    private final Supplier<Collection<BasicEndpoint>> _endpoints;
+
+    private final BulkheadRegistry _bulkheadRegistry;
+
+    private final ConcurrencyLimiterRegistry _concurrencyLimiterRegistry;
+
+    // Constructors
+
+    PrometheusMetricsServlet(Supplier<Collection<BasicEndpoint>> endpoints,
+                             BulkheadRegistry bulkheadRegistry,
+                             ConcurrencyLimiterRegistry concurrencyLimiterRegistry) {
+        _endpoints = endpoints;
+        _bulkheadRegistry = bulkheadRegistry;
+        _concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+    }
+
+    // Private
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<EndpointMetrics> metrics = new ArrayList<>();
+        List<BasicEndpoint> cachingEndpoints = new ArrayList<>();
+        List<EndpointMetrics> compressingEndpoints = new ArrayList<>();
+        List<BasicEndpoint> rateLimitedEndpoints = new ArrayList<>();
+        for (BasicEndpoint endpoint : _endpoints.get()) {
+            metrics.add(endpoint.getMetrics());
+            if (endpoint.getResponseCache() != null) {
+                cachingEndpoints.add(endpoint);
+            }
+            if (endpoint.getCompression() != null) {
+                compressingEndpoints.add(endpoint.getMetrics());
+            }
+            if (endpoint.getRateLimiter() != null) {
+                rateLimitedEndpoints.add(endpoint);
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        writeRequests(builder, metrics);
+        writeFailures(builder, metrics);
+        writeLatency(builder, metrics);
+        writeCoalesced(builder, metrics);
+        writeResponseCaches(builder, cachingEndpoints);
+        writeCompression(builder, compressingEndpoints);
+        writeRateLimiters(builder, rateLimitedEndpoints);
+        writeBulkheads(builder);
+        writeConcurrencyLimiters(builder);
+        response.setContentType(CONTENT_TYPE);
+        PrintWriter writer = response.getWriter();
+        writer.write(builder.toString());
+        writer.flush();
+    }
+
+    private void writeRequests(StringBuilder builder, List<EndpointMetrics> metrics) {
+        header(builder, "trafficante_requests_total", "counter", "Calls by endpoint and response status");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            for (Map.Entry<Integer, Long> entry : endpointMetrics.getStatusCounts().entrySet()) {
+                sample(builder, "trafficante_requests_total", endpointMetrics.getApiPath(),
+                        "status", String.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    private void writeFailures(StringBuilder builder, List<EndpointMetrics> metrics) {
+        header(builder, "trafficante_failures_total", "counter", "Failed calls by endpoint and exception type");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            for (Map.Entry<String, Long> entry : endpointMetrics.getFailureCounts().entrySet()) {
+                sample(builder, "trafficante_failures_total", endpointMetrics.getApiPath(),
+                        "exception", entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void writeLatency(StringBuilder builder, List<EndpointMetrics> metrics) {
+        String name = "trafficante_request_duration_seconds";
+        header(builder, name, "summary", "Call latency by endpoint");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            LatencyHistogram.Snapshot snapshot = endpointMetrics.getLatency().snapshot();
+            for (double quantile : QUANTILES) {
+                sample(builder, name, endpointMetrics.getApiPath(), "quantile", String.valueOf(quantile),
+                        snapshot.getValueAtQuantile(quantile) / NANOS_PER_SECOND);
+            }
+            sample(builder, name + "_sum", endpointMetrics.getApiPath(), null, null,
+                    snapshot.getSum() / NANOS_PER_SECOND);
+            sample(builder, name + "_count", endpointMetrics.getApiPath(), null, null, snapshot.getCount());
+        }
+    }
+
+    private void writeCoalesced(StringBuilder builder, List<EndpointMetrics> metrics) {
+        header(builder, "trafficante_coalesced_requests_total", "counter", "Calls sharing the execution of an equal concurrent call");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            sample(builder, "trafficante_coalesced_requests_total", endpointMetrics.getApiPath(),
+                    null, null, endpointMetrics.getCoalescedCount());
+        }
+    }
+
+    private void writeResponseCaches(StringBuilder builder, List<BasicEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            return;
+        }
+        header(builder, "trafficante_response_cache_hits_total", "counter", "Calls served from response cache");
+        for (BasicEndpoint endpoint : endpoints) {
+            sample(builder, "trafficante_response_cache_hits_total", endpoint.getMetrics().getApiPath(),
+                    null, null, endpoint.getResponseCache().getHitCount());
+        }
+        header(builder, "trafficante_response_cache_misses_total", "counter", "Calls not found in response cache");
+        for (BasicEndpoint endpoint : endpoints) {
+            sample(builder, "trafficante_response_cache_misses_total", endpoint.getMetrics().getApiPath(),
+                    null, null, endpoint.getResponseCache().getMissCount());
+        }
+        header(builder, "trafficante_response_cache_evictions_total", "counter", "Responses evicted from response cache");
+        for (BasicEndpoint endpoint : endpoints) {
+            sample(builder, "trafficante_response_cache_evictions_total", endpoint.getMetrics().getApiPath(),
+                    null, null, endpoint.getResponseCache().getEvictionCount());
+        }
+        header(builder, "trafficante_response_cache_weight_bytes", "gauge", "Total weight of response cache");
+        for (BasicEndpoint endpoint : endpoints) {
+            sample(builder, "trafficante_response_cache_weight_bytes", endpoint.getMetrics().getApiPath(),
+                    null, null, endpoint.getResponseCache().getWeight());
+        }
+    }
+
+    private void writeCompression(StringBuilder builder, List<EndpointMetrics> metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+        header(builder, "trafficante_compressed_responses_total", "counter", "Compressed responses by endpoint");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            sample(builder, "trafficante_compressed_responses_total", endpointMetrics.getApiPath(),
+                    null, null, endpointMetrics.getCompressedCount());
+        }
+        header(builder, "trafficante_compression_cache_hits_total", "counter", "Compressed responses served from compression cache");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            sample(builder, "trafficante_compression_cache_hits_total", endpointMetrics.getApiPath(),
+                    null, null, endpointMetrics.getCompressionCacheHitCount());
+        }
+        header(builder, "trafficante_compression_input_bytes_total", "counter", "Size of compressed responses before compression");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            sample(builder, "trafficante_compression_input_bytes_total", endpointMetrics.getApiPath(),
+                    null, null, endpointMetrics.getUncompressedBytes());
+        }
+        header(builder, "trafficante_compression_output_bytes_total", "counter", "Size of compressed responses after compression");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            sample(builder, "trafficante_compression_output_bytes_total", endpointMetrics.getApiPath(),
+                    null, null, endpointMetrics.getCompressedBytes());
+        }
+        header(builder, "trafficante_compression_cpu_seconds_total", "counter", "CPU time spent compressing responses");
+        for (EndpointMetrics endpointMetrics : metrics) {
+            sample(builder, "trafficante_compression_cpu_seconds_total", endpointMetrics.getApiPath(),
+                    null, null, endpointMetrics.getCompressionCpuNanos() / NANOS_PER_SECOND);
+        }
+    }
+
+    private void writeRateLimiters(StringBuilder builder, List<BasicEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            return;
+        }
+        header(builder, "trafficante_rate_limited_total", "counter", "Calls rejected by rate limiter");
+        for (BasicEndpoint endpoint : endpoints) {
+            sample(builder, "trafficante_rate_limited_total", endpoint.getMetrics().getApiPath(),
+                    null, null, endpoint.getRateLimiter().getRejectedCount());
+        }
+        header(builder, "trafficante_rate_limiter_keys", "gauge", "Keys tracked by rate limiter");
+        for (BasicEndpoint endpoint : endpoints) {
+            sample(builder, "trafficante_rate_limiter_keys", endpoint.getMetrics().getApiPath(),
+                    null, null, endpoint.getRateLimiter().getKeyCount());
+        }
+    }
+
+    private void writeBulkheads(StringBuilder builder) {
+        Collection<Bulkhead> bulkheads = _bulkheadRegistry.getAll();
+        if (bulkheads.isEmpty()) {
+            return;
+        }
+        header(builder, "trafficante_bulkhead_active", "gauge", "Calls currently executed by bulkhead");
+        for (Bulkhead bulkhead : bulkheads) {
+            bulkheadSample(builder, "trafficante_bulkhead_active", bulkhead, bulkhead.getActiveCount());
+        }
+        header(builder, "trafficante_bulkhead_queue_depth", "gauge", "Calls currently waiting by bulkhead");
+        for (Bulkhead bulkhead : bulkheads) {
+            bulkheadSample(builder, "trafficante_bulkhead_queue_depth", bulkhead, bulkhead.getQueueDepth());
+        }
+        header(builder, "trafficante_bulkhead_rejected_total", "counter", "Calls rejected by bulkhead");
+        for (Bulkhead bulkhead : bulkheads) {
+            bulkheadSample(builder, "trafficante_bulkhead_rejected_total", bulkhead, bulkhead.getRejectedCount());
+        }
+    }
+
+    private void writeConcurrencyLimiters(StringBuilder builder) {
+        Collection<ConcurrencyLimiter> limiters = _concurrencyLimiterRegistry.getAll();
+        if (limiters.isEmpty()) {
+            return;
+        }
+        header(builder, "trafficante_concurrency_limit", "gauge", "Calls currently allowed in flight by concurrency limiter");
+        for (ConcurrencyLimiter limiter : limiters) {
+            limiterSample(builder, "trafficante_concurrency_limit", limiter, limiter.getLimit());
+        }
+        header(builder, "trafficante_concurrency_in_flight", "gauge", "Calls currently in flight by concurrency limiter");
+        for (ConcurrencyLimiter limiter : limiters) {
+            limiterSample(builder, "trafficante_concurrency_in_flight", limiter, limiter.getInFlight());
+        }
+        header(builder, "trafficante_concurrency_shed_total", "counter", "Calls shed by concurrency limiter");
+        for (ConcurrencyLimiter limiter : limiters) {
+            limiterSample(builder, "trafficante_concurrency_shed_total", limiter, limiter.getShedCount());
+        }
+    }
+
+    // Static
+
+    private static void header(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder builder,
+                               String name,
+                               String endpoint,
+                               String labelName,
+                               String labelValue,
+                               double value) {
+        builder.append(name).append("{endpoint=\"").append(escape(endpoint)).append('"');
+        if (labelName != null) {
+            builder.append(',').append(labelName).append("=\"").append(escape(labelValue)).append('"');
+        }
+        builder.append("} ").append(format(value)).append('\n');
+    }
+
+    private static void bulkheadSample(StringBuilder builder, String name, Bulkhead bulkhead, double value) {
+        builder.append(name).append("{bulkhead=\"").append(escape(bulkhead.getName())).append("\"} ")
+                .append(format(value)).append('\n');
+    }
+
+    private static void limiterSample(StringBuilder builder, String name, ConcurrencyLimiter limiter, double value) {
+        builder.append(name).append("{limiter=\"").append(escape(limiter.getName())).append("\"} ")
+                .append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        return value == (long) value ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
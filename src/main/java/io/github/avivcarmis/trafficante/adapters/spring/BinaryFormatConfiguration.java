@@ -0,0 +1,51 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import java.util.List;
+
+/**
+ * Allows requests and responses to be encoded in binary Jackson data formats rather than JSON,
+ * as negotiated by the `Content-Type` and `Accept` headers of each request.
+ * Supports Smile (`application/x-jackson-smile`) and CBOR (`application/cbor`), using the same
+ * naming strategy and field visibility as JSON. JSON remains the default format.
+ * Disabled when `trafficante.binary-formats.enabled` is false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "trafficante.binary-formats.enabled", matchIfMissing = true)
+public class BinaryFormatConfiguration extends WebMvcConfigurerAdapter {
+
+    // Constants
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    public static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    // Public
+
+    /**
+     * Adds the binary format converters right after the JSON converter,
+     * so that JSON is preferred whenever the client accepts any format
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int index = converters.size();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                index = i + 1;
+            }
+        }
+        converters.add(index, new BinaryJacksonHttpMessageConverter(
+                ObjectMapperConfiguration.forFormat(new SmileFactory()), APPLICATION_SMILE));
+        converters.add(index + 1, new BinaryJacksonHttpMessageConverter(
+                ObjectMapperConfiguration.forFormat(new CBORFactory()), APPLICATION_CBOR));
+    }
+
+}
@@ -0,0 +1,19 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+/**
+ * Reads and writes a binary Jackson data format, such as Smile or CBOR,
+ * using an object mapper of that format.
+ */
+class BinaryJacksonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    // Constructors
+
+    BinaryJacksonHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(objectMapper, mediaType);
+    }
+
+}
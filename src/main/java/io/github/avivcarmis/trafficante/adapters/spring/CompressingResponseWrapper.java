@@ -0,0 +1,271 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import io.github.avivcarmis.trafficante.core.Compression;
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * A response which is buffered and compressed once complete, if the request was marked
+ * to be compressed by its endpoint and the client accepts the encoding.
+ * The decision is taken once the body is first written, so responses of endpoints without
+ * compression are written directly to the underlying response, and are never buffered.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    // Fields
+
+    private final HttpServletRequest _request;
+
+    private boolean _decided;
+
+    private Compression _compression;
+
+    private ByteArrayOutputStream _buffer;
+
+    private ServletOutputStream _outputStream;
+
+    private PrintWriter _writer;
+
+    private long _contentLength;
+
+    // Constructors
+
+    CompressingResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+        super(response);
+        _request = request;
+        _decided = false;
+        _contentLength = -1;
+    }
+
+    // Public
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        decide();
+        if (_buffer == null) {
+            return super.getOutputStream();
+        }
+        if (_writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response");
+        }
+        if (_outputStream == null) {
+            _outputStream = new BufferingOutputStream();
+        }
+        return _outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        decide();
+        if (_buffer == null) {
+            return super.getWriter();
+        }
+        if (_outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called on this response");
+        }
+        if (_writer == null) {
+            _writer = new PrintWriter(new OutputStreamWriter(_buffer, getCharacterEncoding()));
+        }
+        return _writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (_decided && _buffer == null) {
+            super.setContentLengthLong(len);
+        }
+        else {
+            _contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (isDeferredContentLength(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        }
+        else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (isDeferredContentLength(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        }
+        else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (isDeferredContentLength(name)) {
+            setContentLengthLong(value);
+        }
+        else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (isDeferredContentLength(name)) {
+            setContentLengthLong(value);
+        }
+        else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    /**
+     * Buffered responses are sent once complete, flushing them beforehand has no effect
+     */
+    @Override
+    public void flushBuffer() throws IOException {
+        decide();
+        if (_buffer == null) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (_buffer != null) {
+            _buffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (_buffer != null) {
+            _buffer.reset();
+        }
+        _contentLength = -1;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discard();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discard();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        discard();
+        super.sendRedirect(location);
+    }
+
+    // Private
+
+    /**
+     * Writes the buffered body to the underlying response, compressed if large enough
+     * @throws IOException in case compression or writing has failed
+     */
+    void finish() throws IOException {
+        if (_buffer == null) {
+            return;
+        }
+        if (_writer != null) {
+            _writer.flush();
+        }
+        if (_buffer.size() == 0) {
+            return;
+        }
+        byte[] body = _buffer.toByteArray();
+        _buffer = null;
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (body.length >= _compression.getMinSizeBytes()) {
+            body = _compression.compress(body);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, _compression.getEncoding().getName());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Decides whether the response should be buffered and compressed, according to
+     * the compression the request was marked with, and the encodings accepted by the client
+     */
+    private void decide() {
+        if (_decided) {
+            return;
+        }
+        _decided = true;
+        Compression compression = Compression.forRequest(_request);
+        if (compression != null) {
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (compression.isAcceptedBy(_request.getHeader(HttpHeaders.ACCEPT_ENCODING)) &&
+                    !containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+                _compression = compression;
+                _buffer = new ByteArrayOutputStream(4096);
+                return;
+            }
+        }
+        if (_contentLength >= 0) {
+            super.setContentLengthLong(_contentLength);
+        }
+    }
+
+    private void discard() {
+        if (_buffer != null) {
+            _buffer.reset();
+        }
+    }
+
+    private boolean isDeferredContentLength(String name) {
+        return (!_decided || _buffer != null) && HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+    }
+
+    // Inner
+
+    private class BufferingOutputStream extends ServletOutputStream {
+
+        // Public
+
+        @Override
+        public void write(int b) {
+            _buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            _buffer.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("buffered responses may not be written asynchronously");
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.servlet.DispatcherType;
+
+/**
+ * Registers the filter compressing the responses of endpoints and error handlers which provide
+ * a {@link io.github.avivcarmis.trafficante.core.Compression}, unless `trafficante.compression.enabled` is false.
+ * Other responses are left untouched.
+ */
+@Configuration
+@ConditionalOnProperty(name = "trafficante.compression.enabled", matchIfMissing = true)
+public class CompressionConfiguration {
+
+    // Public
+
+    @Bean
+    public FilterRegistrationBean compressionFilter() {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new CompressionFilter());
+        registration.setName("compressionFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+}
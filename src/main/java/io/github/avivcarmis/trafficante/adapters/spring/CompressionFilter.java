@@ -0,0 +1,53 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Compresses the responses of endpoints providing a {@link io.github.avivcarmis.trafficante.core.Compression},
+ * using a {@link CompressingResponseWrapper}. Requests not accepting any encoding are not wrapped.
+ * Asynchronously handled responses are compressed once the last dispatch of the request completes.
+ */
+class CompressionFilter extends OncePerRequestFilter {
+
+    // Private
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        if (wrapper == null) {
+            if (request.getHeader(HttpHeaders.ACCEPT_ENCODING) == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            wrapper = new CompressingResponseWrapper(request, response);
+            filterChain.doFilter(request, wrapper);
+        }
+        else {
+            filterChain.doFilter(request, response);
+        }
+        if (!isAsyncStarted(request)) {
+            wrapper.finish();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+}
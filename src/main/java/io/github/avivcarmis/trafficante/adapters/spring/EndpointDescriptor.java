@@ -0,0 +1,145 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.avivcarmis.trafficante.core.BasicEndpoint;
+import io.github.avivcarmis.trafficante.core.HttpMethodContentClass;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Everything required to dispatch a call to a single endpoint, resolved once at startup:
+ * the endpoint instance, its path and handler method, the content class of its http method,
+ * its request type, and a prebuilt reader or query string binder of the request entity.
+ *
+ * When enabled by {@link BasicEndpoint#defaultDirectJsonProvider()}, JSON request bodies are read
+ * by the prebuilt reader, whose deserializer is resolved once, rather than by the message converters.
+ */
+public final class EndpointDescriptor {
+
+    // Fields
+
+    private final BasicEndpoint<Object, ?, ?> _endpoint;
+
+    private final String _path;
+
+    private final String _apiMethodName;
+
+    private final HttpMethodContentClass _contentClass;
+
+    private final JavaType _requestType;
+
+    private final ObjectReader _reader;
+
+    private final QueryStringBinder _binder;
+
+    private final boolean _directJson;
+
+    // Constructors
+
+    EndpointDescriptor(BasicEndpoint<Object, ?, ?> endpoint, ObjectMapper objectMapper) {
+        _endpoint = endpoint;
+        String path = endpoint.defaultPathProvider();
+        _path = path.charAt(0) == '/' ? path : '/' + path;
+        _apiMethodName = EndpointRequestMappingHandlerMapping.apiMethodName(endpoint);
+        _contentClass = HttpMethodContentClass.classify(endpoint.getHttpMethod());
+        JavaType[] typeParameters = objectMapper
+                .constructType(ClassUtils.getUserClass(endpoint))
+                .findTypeParameters(BasicEndpoint.class);
+        _requestType = typeParameters.length > 0 ? typeParameters[0] : objectMapper.constructType(Object.class);
+        _reader = objectMapper.readerFor(_requestType);
+        _binder = _contentClass == HttpMethodContentClass.QUERY_STRING ?
+                QueryStringBinder.create(objectMapper, _requestType.getRawClass()) :
+                null;
+        _directJson = endpoint.defaultDirectJsonProvider();
+    }
+
+    // Public
+
+    public BasicEndpoint<Object, ?, ?> getEndpoint() {
+        return _endpoint;
+    }
+
+    /**
+     * @return the path of the endpoint, always starting with a slash
+     */
+    public String getPath() {
+        return _path;
+    }
+
+    /**
+     * @return the name of the endpoint method which handles requests
+     */
+    public String getApiMethodName() {
+        return _apiMethodName;
+    }
+
+    public HttpMethodContentClass getContentClass() {
+        return _contentClass;
+    }
+
+    public JavaType getRequestType() {
+        return _requestType;
+    }
+
+    /**
+     * @return whether JSON request bodies should be read by {@link #read(InputStream)}
+     */
+    public boolean isDirectJson() {
+        return _directJson;
+    }
+
+    /**
+     * Binds query string parameters into a new request entity
+     * @param parameters the query string parameters
+     * @return the bound request entity
+     * @throws BadRequestException in case a parameter value cannot be bound
+     * @throws IllegalStateException in case the endpoint does not accept query string requests
+     */
+    public Object bind(Map<String, String[]> parameters) throws BadRequestException {
+        if (_binder == null) {
+            throw new IllegalStateException(_endpoint.getHttpMethod() + " " + _path + " does not accept query strings");
+        }
+        return _binder.bind(parameters);
+    }
+
+    /**
+     * Reads a request entity from a JSON tree
+     * @param body the request body
+     * @return the read request entity
+     * @throws BadRequestException in case the body is not a valid request entity
+     */
+    public Object read(JsonNode body) throws BadRequestException {
+        try {
+            return _reader.readValue(body);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException(e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a request entity from a JSON request body, and closes the body
+     * @param body the request body
+     * @return the read request entity, or null if the body is empty
+     * @throws IOException in case the body is not a valid request entity, or cannot be read
+     */
+    public Object read(InputStream body) throws IOException {
+        try (JsonParser parser = _reader.getFactory().createParser(body)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return _reader.readValue(parser);
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import io.github.avivcarmis.trafficante.core.BasicEndpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The dispatch table of all endpoints, mapping each endpoint class and each
+ * http method and path to an immutable {@link EndpointDescriptor}.
+ *
+ * The table is built once, when first looked up while request mappings are registered on startup,
+ * so that per request components resolve endpoints with a single lookup, and never access the bean factory.
+ */
+@Component("EndpointRegistry")
+public class EndpointRegistry {
+
+    // Fields
+
+    private final ApplicationContext _applicationContext;
+
+    private final ObjectMapper _objectMapper;
+
+    private volatile Table _table;
+
+    // Constructors
+
+    @Autowired
+    public EndpointRegistry(ApplicationContext applicationContext, ObjectMapper objectMapper) {
+        _applicationContext = applicationContext;
+        _objectMapper = objectMapper;
+    }
+
+    // Public
+
+    /**
+     * @param endpointClass the class of an endpoint bean
+     * @return the descriptor of the endpoint, or null if there is no such endpoint
+     */
+    public EndpointDescriptor get(Class<?> endpointClass) {
+        return table()._byClass.get(endpointClass);
+    }
+
+    /**
+     * @param method the http method of an endpoint
+     * @param path   the path of an endpoint, with or without a leading slash
+     * @return the descriptor of the endpoint, or null if there is no such endpoint
+     */
+    public EndpointDescriptor get(RequestMethod method, String path) {
+        return table()._byMapping.get(mappingKey(method, path));
+    }
+
+    /**
+     * @param path a path, with or without a leading slash
+     * @return whether any endpoint is mapped to the given path, by any http method
+     */
+    public boolean containsPath(String path) {
+        String normalized = path.startsWith("/") ? path : '/' + path;
+        for (EndpointDescriptor descriptor : getAll()) {
+            if (descriptor.getPath().equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the descriptors of all endpoints
+     */
+    public Collection<EndpointDescriptor> getAll() {
+        return table()._byClass.values();
+    }
+
+    // Private
+
+    private Table table() {
+        Table table = _table;
+        if (table == null) {
+            table = build();
+        }
+        return table;
+    }
+
+    private synchronized Table build() {
+        if (_table == null) {
+            Map<Class<?>, EndpointDescriptor> byClass = new HashMap<>();
+            Map<String, EndpointDescriptor> byMapping = new HashMap<>();
+            for (BasicEndpoint endpoint : _applicationContext.getBeansOfType(BasicEndpoint.class).values()) {
+                //noinspection unchecked
+                EndpointDescriptor descriptor = new EndpointDescriptor(endpoint, _objectMapper);
+                byClass.put(ClassUtils.getUserClass(endpoint), descriptor);
+                byMapping.put(mappingKey(endpoint.getHttpMethod(), descriptor.getPath()), descriptor);
+            }
+            _table = new Table(ImmutableMap.copyOf(byClass), ImmutableMap.copyOf(byMapping));
+        }
+        return _table;
+    }
+
+    // Static
+
+    private static String mappingKey(RequestMethod method, String path) {
+        return method.name() + " " + (path.startsWith("/") ? path : '/' + path);
+    }
+
+    // Inner
+
+    private static class Table {
+
+        // Fields
+
+        private final Map<Class<?>, EndpointDescriptor> _byClass;
+
+        private final Map<String, EndpointDescriptor> _byMapping;
+
+        // Constructors
+
+        private Table(Map<Class<?>, EndpointDescriptor> byClass, Map<String, EndpointDescriptor> byMapping) {
+            _byClass = byClass;
+            _byMapping = byMapping;
+        }
+
+    }
+
+}
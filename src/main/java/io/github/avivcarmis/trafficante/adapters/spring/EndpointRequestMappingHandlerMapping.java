@@ -1,9 +1,11 @@
 package io.github.avivcarmis.trafficante.adapters.spring;
 
 import com.google.common.collect.ImmutableSet;
+import io.github.avivcarmis.trafficante.core.BasicAsyncEndpoint;
 import io.github.avivcarmis.trafficante.core.BasicEndpoint;
+import io.github.avivcarmis.trafficante.core.BasicErrorHandler;
+import io.github.avivcarmis.trafficante.core.BatchController;
 import io.github.avivcarmis.trafficante.core.Trafficante;
-import org.springframework.context.ApplicationContext;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
@@ -16,6 +18,8 @@ import java.util.Set;
 
 /**
  * Identifies and maps endpoint classes to a {@link RequestMappingInfo}.
+ * Endpoints are resolved from the {@link EndpointRegistry}.
+ * Error handlers and the batch controller are mapped by their annotations.
  */
 public class EndpointRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
 
@@ -26,20 +30,28 @@ public class EndpointRequestMappingHandlerMapping extends RequestMappingHandlerM
             Swagger2Controller.class
     );
 
+    private static final String API_METHOD_NAME = "doAPICall";
+
+    private static final String ASYNC_API_METHOD_NAME = "doAsyncAPICall";
+
     // Fields
 
-    private final ApplicationContext _applicationContext;
+    private final EndpointRegistry _endpointRegistry;
 
     // Constructors
 
-    EndpointRequestMappingHandlerMapping(ApplicationContext applicationContext) {
-        _applicationContext = applicationContext;
+    EndpointRequestMappingHandlerMapping(EndpointRegistry endpointRegistry) {
+        _endpointRegistry = endpointRegistry;
     }
 
     // Private
 
     @Override
     protected boolean isHandler(Class<?> beanType) {
+        if (Swagger2Controller.class == beanType) {
+            // served by SwaggerDocumentController
+            return false;
+        }
         if (super.isHandler(beanType)) {
             if (Trafficante.getSettings().isSwaggerEnabled()) {
                 return true;
@@ -48,7 +60,9 @@ public class EndpointRequestMappingHandlerMapping extends RequestMappingHandlerM
                 return false;
             }
         }
-        return BasicEndpoint.class.isAssignableFrom(beanType);
+        return BasicEndpoint.class.isAssignableFrom(beanType) ||
+                BasicErrorHandler.class.isAssignableFrom(beanType) ||
+                BatchController.class == beanType;
     }
 
     @Override
@@ -56,15 +70,17 @@ public class EndpointRequestMappingHandlerMapping extends RequestMappingHandlerM
         if (!BasicEndpoint.class.isAssignableFrom(handlerType)) {
             return super.getMappingForMethod(method, handlerType);
         }
-        if (!method.getName().equals("doAPICall")) {
+        if (!isApiMethodName(method.getName())) {
+            return null;
+        }
+        EndpointDescriptor descriptor = _endpointRegistry.get(handlerType);
+        if (descriptor == null || !method.getName().equals(descriptor.getApiMethodName())) {
             return null;
         }
-        //noinspection unchecked
-        BasicEndpoint instance = _applicationContext.getBean((Class<BasicEndpoint>) handlerType);
-        String path = instance.defaultPathProvider();
+        BasicEndpoint instance = descriptor.getEndpoint();
         return new RequestMappingInfo(
                 null,
-                new PatternsRequestCondition(path.charAt(0) == '/' ? path : '/' + path),
+                new PatternsRequestCondition(descriptor.getPath()),
                 new RequestMethodsRequestCondition(instance.getHttpMethod()),
                 instance.defaultParamsRequestConditionProvider(),
                 instance.defaultHeadersRequestConditionProvider(),
@@ -74,4 +90,24 @@ public class EndpointRequestMappingHandlerMapping extends RequestMappingHandlerM
         );
     }
 
+    // Static
+
+    /**
+     * @param endpoint an endpoint instance
+     * @return the name of the endpoint method which should handle requests
+     */
+    static String apiMethodName(BasicEndpoint endpoint) {
+        return endpoint instanceof BasicAsyncEndpoint || endpoint.getBulkhead() != null ?
+                ASYNC_API_METHOD_NAME :
+                API_METHOD_NAME;
+    }
+
+    /**
+     * @param methodName the name of an endpoint method
+     * @return whether the method may handle requests
+     */
+    static boolean isApiMethodName(String methodName) {
+        return API_METHOD_NAME.equals(methodName) || ASYNC_API_METHOD_NAME.equals(methodName);
+    }
+
 }
\ No newline at end of file
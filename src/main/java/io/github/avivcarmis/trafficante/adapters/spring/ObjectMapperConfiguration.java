@@ -2,12 +2,15 @@ package io.github.avivcarmis.trafficante.adapters.spring;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import io.github.avivcarmis.trafficante.core.Trafficante;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 /**
- * Configures the server object mapper
+ * Configures the server object mapper, and the object mappers of other data formats.
+ * When enabled by the server settings, registers the Afterburner module, which is an optional dependency.
  */
 public class ObjectMapperConfiguration extends Jackson2ObjectMapperBuilder {
 
@@ -16,6 +19,31 @@ public class ObjectMapperConfiguration extends Jackson2ObjectMapperBuilder {
         super.configure(objectMapper);
         objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
         objectMapper.setPropertyNamingStrategy(Trafficante.getSettings().getNamingStrategy());
+        if (Trafficante.getSettings().isAfterburnerEnabled()) {
+            Afterburner.register(objectMapper);
+        }
+    }
+
+    /**
+     * Builds an object mapper of another data format, configured exactly like the server object mapper
+     * @param factory the factory of the data format, e.g. a SmileFactory
+     * @return the object mapper
+     */
+    static ObjectMapper forFormat(JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        new ObjectMapperConfiguration().configure(objectMapper);
+        return objectMapper;
+    }
+
+    /**
+     * Isolates the references to the Afterburner module, which may be missing from the classpath
+     */
+    private static class Afterburner {
+
+        private static void register(ObjectMapper objectMapper) {
+            objectMapper.registerModule(new AfterburnerModule());
+        }
+
     }
 
 }
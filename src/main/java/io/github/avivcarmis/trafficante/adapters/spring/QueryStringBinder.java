@@ -0,0 +1,449 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.EnumDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.AnnotatedWithParams;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.node.TreeTraversingParser;
+import com.fasterxml.jackson.databind.util.EnumResolver;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Binds query string parameters directly into a request entity.
+ * Built once per request class from the deserializer the server {@link ObjectMapper}
+ * resolves for it, so that property names, visibility and mutators are exactly those
+ * used for payload requests, but no intermediate JSON document is ever produced.
+ *
+ * Common scalar values are coerced directly. Anything else, including every value
+ * that fails direct coercion, is handed to the Jackson deserializer of the property,
+ * so that results and error messages remain those of Jackson.
+ */
+class QueryStringBinder {
+
+    // Constants
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final String STD_DESERIALIZERS_PACKAGE = "com.fasterxml.jackson.databind.deser.std.";
+
+    // Fields
+
+    private final ObjectMapper _objectMapper;
+
+    private final Class<?> _type;
+
+    /**
+     * Instantiates the entity, null when the entity cannot be bound directly
+     */
+    private final MethodHandle _constructor;
+
+    private final Map<String, BoundProperty> _properties;
+
+    // Constructors
+
+    private QueryStringBinder(ObjectMapper objectMapper,
+                              Class<?> type,
+                              MethodHandle constructor,
+                              Map<String, BoundProperty> properties) {
+        _objectMapper = objectMapper;
+        _type = type;
+        _constructor = constructor;
+        _properties = properties;
+    }
+
+    // Public
+
+    /**
+     * Binds the given query string parameters into a new instance of the request entity.
+     * Only the first value of each parameter is taken into account.
+     * @param parameters the query string parameters
+     * @return the bound request entity
+     * @throws BadRequestException in case a parameter value cannot be bound
+     */
+    Object bind(Map<String, String[]> parameters) throws BadRequestException {
+        if (_constructor == null) {
+            return convert(parameters);
+        }
+        Object instance = instantiate();
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            String[] value = entry.getValue();
+            if (value == null || value.length == 0) {
+                continue;
+            }
+            BoundProperty property = _properties.get(entry.getKey());
+            if (property != null) {
+                try {
+                    property.bind(instance, value[0]);
+                } catch (IOException e) {
+                    throw translate(JsonMappingException.wrapWithPath(e, instance, property._name));
+                }
+            }
+        }
+        return instance;
+    }
+
+    // Private
+
+    private Object instantiate() {
+        try {
+            return (Object) _constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new RuntimeException("can not construct an instance of " + _type.getName(), t);
+        }
+    }
+
+    /**
+     * Binds entities that cannot be bound directly, i.e. ones created using a creator,
+     * a builder or a custom deserializer, by converting the parameters through a token buffer.
+     */
+    private Object convert(Map<String, String[]> parameters) throws BadRequestException {
+        Map<String, String> params = new HashMap<>();
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            String[] value = entry.getValue();
+            if (value != null && value.length > 0) {
+                params.put(entry.getKey(), value[0]);
+            }
+        }
+        try {
+            return _objectMapper.convertValue(params, _type);
+        } catch (IllegalArgumentException e) {
+            if (e.getCause() instanceof JsonMappingException) {
+                throw translate((JsonMappingException) e.getCause());
+            }
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private BadRequestException translate(JsonMappingException e) {
+        if (e instanceof InvalidFormatException) {
+            String message = e.getMessage();
+            if (e.getPath().size() > 0) {
+                String fieldName = e.getPath().get(0).getFieldName();
+                PropertyNamingStrategy strategy = _objectMapper.getPropertyNamingStrategy();
+                if (strategy != null) {
+                    fieldName = strategy.nameForField(null, null, fieldName);
+                }
+                message = "field `" + fieldName + "` must be of type " +
+                        ((InvalidFormatException) e).getTargetType().getSimpleName();
+            }
+            return new BadRequestException(message);
+        }
+        if (e.getMessage().contains("Can not construct")) {
+            throw new RuntimeException("can not construct an instance of " + _type.getName());
+        }
+        return new BadRequestException(e.getMessage());
+    }
+
+    // Static
+
+    /**
+     * Builds a binder of the given request entity class
+     * @param objectMapper the server object mapper
+     * @param type         the request entity class
+     * @return the binder
+     */
+    static QueryStringBinder create(ObjectMapper objectMapper, Class<?> type) {
+        DeserializationConfig config = objectMapper.getDeserializationConfig();
+        JavaType javaType = objectMapper.constructType(type);
+        JsonDeserializer<Object> deserializer;
+        try {
+            DefaultDeserializationContext context = ((DefaultDeserializationContext) objectMapper
+                    .getDeserializationContext())
+                    .createInstance(config, null, objectMapper.getInjectableValues());
+            deserializer = context.findRootValueDeserializer(javaType);
+        } catch (JsonMappingException e) {
+            return new QueryStringBinder(objectMapper, type, null, null);
+        }
+        MethodHandle constructor = findConstructor(objectMapper, javaType, deserializer);
+        if (constructor == null) {
+            return new QueryStringBinder(objectMapper, type, null, null);
+        }
+        Map<String, BoundProperty> properties = new HashMap<>();
+        Iterator<SettableBeanProperty> iterator = ((BeanDeserializer) deserializer).properties();
+        while (iterator.hasNext()) {
+            SettableBeanProperty property = iterator.next();
+            properties.put(property.getName(), new BoundProperty(objectMapper, property));
+        }
+        return new QueryStringBinder(objectMapper, type, constructor, properties);
+    }
+
+    /**
+     * Resolves the default constructor of entities which may be bound directly,
+     * that is plain beans deserialized by a {@link BeanDeserializer} without creators,
+     * object ids, any-setters, injectables or strict handling of unknown properties.
+     * @return the constructor, or null if the entity may not be bound directly
+     */
+    private static MethodHandle findConstructor(ObjectMapper objectMapper,
+                                                JavaType javaType,
+                                                JsonDeserializer<Object> deserializer) {
+        DeserializationConfig config = objectMapper.getDeserializationConfig();
+        if (deserializer.getClass() != BeanDeserializer.class ||
+                config.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+            return null;
+        }
+        BeanDeserializer beanDeserializer = (BeanDeserializer) deserializer;
+        if (beanDeserializer.getObjectIdReader() != null ||
+                beanDeserializer.creatorProperties().hasNext() ||
+                !beanDeserializer.getValueInstantiator().canCreateUsingDefault()) {
+            return null;
+        }
+        BeanDescription description = config.introspect(javaType);
+        Map<Object, ?> injectables = description.findInjectables();
+        if (description.findAnySetter() != null ||
+                description.findAnySetterField() != null ||
+                (injectables != null && !injectables.isEmpty())) {
+            return null;
+        }
+        AnnotatedWithParams creator = beanDeserializer.getValueInstantiator().getDefaultCreator();
+        if (!(creator instanceof AnnotatedConstructor)) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = ((AnnotatedConstructor) creator).getAnnotated();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Inner
+
+    /**
+     * The way a property value is coerced from its query string representation
+     */
+    private enum Coercion {
+        STRING, INT, LONG, DOUBLE, FLOAT, BOOLEAN, ENUM, DESERIALIZER
+    }
+
+    /**
+     * A single property of a bound entity
+     */
+    private static class BoundProperty {
+
+        // Constants
+
+        /**
+         * Marks an explicit null coercion, as opposed to a failed one
+         */
+        private static final Object NULL = new Object();
+
+        // Fields
+
+        private final ObjectMapper _objectMapper;
+
+        private final SettableBeanProperty _property;
+
+        private final String _name;
+
+        private final Coercion _coercion;
+
+        private final boolean _primitive;
+
+        private final EnumResolver _enumResolver;
+
+        // Constructors
+
+        private BoundProperty(ObjectMapper objectMapper, SettableBeanProperty property) {
+            _objectMapper = objectMapper;
+            _property = property;
+            _name = property.getName();
+            Class<?> type = property.getType().getRawClass();
+            _primitive = type.isPrimitive();
+            _coercion = resolveCoercion(objectMapper, property, type);
+            _enumResolver = _coercion == Coercion.ENUM ? resolveEnum(objectMapper, type) : null;
+        }
+
+        // Private
+
+        private void bind(Object instance, String value) throws IOException {
+            Object coerced = coerce(value);
+            if (coerced == null || (coerced == NULL && _primitive)) {
+                deserialize(instance, value);
+            }
+            else {
+                _property.set(instance, coerced == NULL ? null : coerced);
+            }
+        }
+
+        /**
+         * @return the coerced value, {@link #NULL} for an explicit null,
+         * or null if the value should be handed to the property deserializer
+         */
+        private Object coerce(String value) {
+            switch (_coercion) {
+                case STRING:
+                    return value;
+                case ENUM:
+                    return _enumResolver.findEnum(value);
+                case DESERIALIZER:
+                    return null;
+            }
+            String trimmed = value.trim();
+            if (trimmed.isEmpty() || trimmed.equals("null")) {
+                return NULL;
+            }
+            switch (_coercion) {
+                case INT:
+                    return isPlainInteger(trimmed) ? parseInt(trimmed) : null;
+                case LONG:
+                    return isPlainInteger(trimmed) ? parseLong(trimmed) : null;
+                case DOUBLE:
+                    return isPlainDecimal(trimmed) ? Double.valueOf(trimmed) : null;
+                case FLOAT:
+                    return isPlainDecimal(trimmed) ? Float.valueOf(trimmed) : null;
+                case BOOLEAN:
+                    if (trimmed.equals("true") || trimmed.equals("True")) {
+                        return Boolean.TRUE;
+                    }
+                    if (trimmed.equals("false") || trimmed.equals("False")) {
+                        return Boolean.FALSE;
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private void deserialize(Object instance, String value) throws IOException {
+            DeserializationConfig config = _objectMapper.getDeserializationConfig();
+            JsonParser parser = new TreeTraversingParser(TextNode.valueOf(value), _objectMapper);
+            parser.nextToken();
+            DefaultDeserializationContext context = ((DefaultDeserializationContext) _objectMapper
+                    .getDeserializationContext())
+                    .createInstance(config, parser, _objectMapper.getInjectableValues());
+            _property.deserializeAndSet(parser, context, instance);
+        }
+
+        // Static
+
+        private static Coercion resolveCoercion(ObjectMapper objectMapper, SettableBeanProperty property, Class<?> type) {
+            JsonDeserializer<Object> deserializer = property.getValueDeserializer();
+            if (property.hasValueTypeDeserializer() || deserializer == null ||
+                    !deserializer.getClass().getName().startsWith(STD_DESERIALIZERS_PACKAGE)) {
+                return Coercion.DESERIALIZER;
+            }
+            if (type == String.class || type == Object.class) {
+                return Coercion.STRING;
+            }
+            if (type == Integer.class || type == int.class) {
+                return Coercion.INT;
+            }
+            if (type == Long.class || type == long.class) {
+                return Coercion.LONG;
+            }
+            if (type == Double.class || type == double.class) {
+                return Coercion.DOUBLE;
+            }
+            if (type == Float.class || type == float.class) {
+                return Coercion.FLOAT;
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return Coercion.BOOLEAN;
+            }
+            if (type.isEnum() && deserializer.getClass() == EnumDeserializer.class && !hasJsonValue(objectMapper, type)) {
+                return Coercion.ENUM;
+            }
+            return Coercion.DESERIALIZER;
+        }
+
+        /**
+         * Enums serialized through a `@JsonValue` method are resolved by their values rather than by
+         * their names, and so are left to their deserializer
+         */
+        private static boolean hasJsonValue(ObjectMapper objectMapper, Class<?> type) {
+            DeserializationConfig config = objectMapper.getDeserializationConfig();
+            return config.introspect(config.constructType(type)).findJsonValueMethod() != null;
+        }
+
+        private static EnumResolver resolveEnum(ObjectMapper objectMapper, Class<?> type) {
+            DeserializationConfig config = objectMapper.getDeserializationConfig();
+            AnnotationIntrospector introspector = config.getAnnotationIntrospector();
+            if (config.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING)) {
+                return EnumResolver.constructUnsafeUsingToString(type, introspector);
+            }
+            return EnumResolver.constructUnsafe(type, introspector);
+        }
+
+        private static boolean isPlainInteger(String value) {
+            int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+            return start < value.length() && digitsEnd(value, start) == value.length();
+        }
+
+        private static boolean isPlainDecimal(String value) {
+            int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+            int index = digitsEnd(value, start);
+            if (index == start) {
+                return false;
+            }
+            if (index < value.length() && value.charAt(index) == '.') {
+                int fractionStart = index + 1;
+                index = digitsEnd(value, fractionStart);
+                if (index == fractionStart) {
+                    return false;
+                }
+            }
+            if (index < value.length() && (value.charAt(index) == 'e' || value.charAt(index) == 'E')) {
+                int exponentStart = index + 1;
+                if (exponentStart < value.length() &&
+                        (value.charAt(exponentStart) == '-' || value.charAt(exponentStart) == '+')) {
+                    exponentStart++;
+                }
+                index = digitsEnd(value, exponentStart);
+                if (index == exponentStart) {
+                    return false;
+                }
+            }
+            return index == value.length();
+        }
+
+        private static int digitsEnd(String value, int start) {
+            int index = start;
+            while (index < value.length() && value.charAt(index) >= '0' && value.charAt(index) <= '9') {
+                index++;
+            }
+            return index;
+        }
+
+        private static Integer parseInt(String value) {
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Long parseLong(String value) {
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+    }
+
+}
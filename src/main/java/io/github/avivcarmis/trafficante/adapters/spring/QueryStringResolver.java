@@ -1,14 +1,12 @@
 package io.github.avivcarmis.trafficante.adapters.spring;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import io.github.avivcarmis.trafficante.core.BasicEndpoint;
 import io.github.avivcarmis.trafficante.core.HttpMethodContentClass;
-import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
@@ -16,33 +14,30 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
 
 /**
  * Handles parsing of query string endpoint requests.
  * Overrides {@link RequestResponseBodyMethodProcessor} to check if request
- * is of type query string - if so, parses the query string,
- * if not, let {@link RequestResponseBodyMethodProcessor} handle.
+ * is of type query string - if so, binds the query string using the prebuilt binder
+ * of the endpoint {@link EndpointDescriptor}. JSON request bodies are read using the prebuilt reader of
+ * the endpoint, failing exactly like the message converters would, and otherwise
+ * {@link RequestResponseBodyMethodProcessor} handles the request.
  */
 @Component("QueryStringResolver")
 public class QueryStringResolver implements HandlerMethodArgumentResolver {
 
     // Fields
 
-    private final ApplicationContext _applicationContext;
-
-    private final ObjectMapper _objectMapper;
+    private final EndpointRegistry _endpointRegistry;
 
     private RequestResponseBodyMethodProcessor _originalProcessor;
 
     // Constructors
 
     @Autowired
-    public QueryStringResolver(ApplicationContext applicationContext, ObjectMapper objectMapper) {
-        _applicationContext = applicationContext;
-        _objectMapper = objectMapper;
+    public QueryStringResolver(EndpointRegistry endpointRegistry) {
+        _endpointRegistry = endpointRegistry;
     }
 
     // Public
@@ -50,7 +45,7 @@ public class QueryStringResolver implements HandlerMethodArgumentResolver {
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
         return BasicEndpoint.class.isAssignableFrom(parameter.getMethod().getDeclaringClass()) &&
-                parameter.getMethod().getName().equals("doAPICall");
+                EndpointRequestMappingHandlerMapping.isApiMethodName(parameter.getMethod().getName());
     }
 
     @Override
@@ -58,48 +53,53 @@ public class QueryStringResolver implements HandlerMethodArgumentResolver {
                                   ModelAndViewContainer mavContainer,
                                   NativeWebRequest webRequest,
                                   WebDataBinderFactory binderFactory) throws Exception {
-        Class<?> aClass = parameter.getContainingClass();
-        //noinspection unchecked
-        BasicEndpoint endpoint = _applicationContext.getBean((Class<? extends BasicEndpoint>) aClass);
-        if (HttpMethodContentClass.classify(endpoint.getHttpMethod()) != HttpMethodContentClass.QUERY_STRING) {
-            return _originalProcessor.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        EndpointDescriptor descriptor = _endpointRegistry.get(parameter.getContainingClass());
+        if (descriptor != null && descriptor.getContentClass() == HttpMethodContentClass.QUERY_STRING) {
+            return descriptor.bind(webRequest.getParameterMap());
         }
-        Class<?> reqClass = parameter.getParameterType();
-        Map<String, String> params = new HashMap<>();
-        for (Map.Entry<String, String[]> entry : webRequest.getParameterMap().entrySet()) {
-            String[] value = entry.getValue();
-            if (value != null && value.length > 0) {
-                params.put(entry.getKey(), value[0]);
-            }
+        HttpServletRequest servletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (descriptor != null && descriptor.isDirectJson() && isJson(servletRequest.getContentType())) {
+            return read(descriptor, parameter, servletRequest);
         }
-        String mapAsJson;
+        return _originalProcessor.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+    }
+
+    // Private
+
+    void setOriginalProcessor(RequestResponseBodyMethodProcessor originalProcessor) {
+        this._originalProcessor = originalProcessor;
+    }
+
+    private Object read(EndpointDescriptor descriptor,
+                        MethodParameter parameter,
+                        HttpServletRequest servletRequest) throws Exception {
+        Object result;
         try {
-            mapAsJson = _objectMapper.writeValueAsString(params);
+            result = descriptor.read(servletRequest.getInputStream());
         } catch (JsonProcessingException e) {
-            throw new RuntimeException("could not map object to string", e);
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
         }
-        try {
-            return _objectMapper.readValue(mapAsJson, reqClass);
-        } catch (InvalidFormatException e) {
-            String message = e.getMessage();
-            if (e.getPath().size() > 0) {
-                String fieldName = _objectMapper.getPropertyNamingStrategy().nameForField(null, null,
-                        e.getPath().get(0).getFieldName());
-                message = "field `" + fieldName + "` must be of type " + e.getTargetType().getSimpleName();
-            }
-            throw new BadRequestException(message);
-        } catch (IOException e) {
-            if (e.getMessage().contains("Can not construct")) {
-                throw new RuntimeException("can not construct an instance of " + reqClass.getName());
-            }
-            throw new BadRequestException(e.getMessage());
+        if (result == null) {
+            throw new HttpMessageNotReadableException("Required request body is missing: " +
+                    parameter.getMethod().toGenericString());
         }
+        return result;
     }
 
-    // Private
+    // Static
 
-    void setOriginalProcessor(RequestResponseBodyMethodProcessor originalProcessor) {
-        this._originalProcessor = originalProcessor;
+    /**
+     * @param contentType the content type of a request
+     * @return whether the content type is `application/json`, with any parameters
+     */
+    private static boolean isJson(String contentType) {
+        String json = MediaType.APPLICATION_JSON_VALUE;
+        if (contentType == null || !contentType.regionMatches(true, 0, json, 0, json.length())) {
+            return false;
+        }
+        return contentType.length() == json.length() ||
+                contentType.charAt(json.length()) == ';' ||
+                Character.isWhitespace(contentType.charAt(json.length()));
     }
 
 }
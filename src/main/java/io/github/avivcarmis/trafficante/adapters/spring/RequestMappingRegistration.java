@@ -1,28 +1,33 @@
 package io.github.avivcarmis.trafficante.adapters.spring;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 /**
  * Registers {@link EndpointRequestMappingHandlerMapping} to map
  * {@link io.github.avivcarmis.trafficante.core.BasicEndpoint} endpoints.
+ * Imports {@link AutoWebConfiguration}, since Spring registers the bean definitions of imported
+ * configurations before those of the importing one. The handler mapping defined by this class
+ * is therefore registered last, and overrides the one of {@link AutoWebConfiguration},
+ * regardless of the order in which classes are scanned.
  */
 @Configuration
+@Import(AutoWebConfiguration.class)
 public class RequestMappingRegistration extends DelegatingWebMvcConfiguration {
 
     // Fields
 
-    private final ApplicationContext _applicationContext;
+    private final EndpointRegistry _endpointRegistry;
 
     // Constructors
 
     @Autowired
-    public RequestMappingRegistration(ApplicationContext applicationContext) {
-        _applicationContext = applicationContext;
+    public RequestMappingRegistration(EndpointRegistry endpointRegistry) {
+        _endpointRegistry = endpointRegistry;
     }
 
     // Public
@@ -37,7 +42,7 @@ public class RequestMappingRegistration extends DelegatingWebMvcConfiguration {
 
     @Override
     protected RequestMappingHandlerMapping createRequestMappingHandlerMapping() {
-        return new EndpointRequestMappingHandlerMapping(_applicationContext);
+        return new EndpointRequestMappingHandlerMapping(_endpointRegistry);
     }
 
 }
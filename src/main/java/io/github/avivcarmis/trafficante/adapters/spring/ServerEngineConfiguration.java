@@ -0,0 +1,187 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import io.github.avivcarmis.trafficante.core.Trafficante;
+import io.undertow.UndertowOptions;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.eclipse.jetty.server.AbstractConnector;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.jetty.JettyEmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.undertow.UndertowEmbeddedServletContainerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.xnio.Options;
+
+/**
+ * Creates the embedded servlet container of the {@link io.github.avivcarmis.trafficante.core.ServerEngine}
+ * selected in the server settings, and applies the connector tuning of the settings to it.
+ * Tuning which is not set is left to the defaults of the engine, and may still be set using the
+ * Spring Boot `server.*` properties, which take precedence.
+ */
+@Configuration
+public class ServerEngineConfiguration {
+
+    // Constants
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerEngineConfiguration.class);
+
+    // Public
+
+    @Bean
+    public EmbeddedServletContainerFactory embeddedServletContainerFactory() {
+        Trafficante.Settings settings = Trafficante.getSettings();
+        switch (settings.getEngine()) {
+            case JETTY:
+                return JettyFactory.create(settings);
+            case UNDERTOW:
+                return UndertowFactory.create(settings);
+            default:
+                return TomcatFactory.create(settings);
+        }
+    }
+
+    // Static
+
+    private static void unsupported(String setting, String engine) {
+        LOG.warn("{} is not supported by {}, using the engine default", setting, engine);
+    }
+
+    // Inner
+
+    /**
+     * Each engine is configured by a class of its own, so that only classes of the selected engine are loaded
+     */
+    private static class TomcatFactory {
+
+        // Static
+
+        private static EmbeddedServletContainerFactory create(Trafficante.Settings settings) {
+            TomcatEmbeddedServletContainerFactory factory = new TomcatEmbeddedServletContainerFactory();
+            factory.addConnectorCustomizers(connector -> {
+                ProtocolHandler handler = connector.getProtocolHandler();
+                if (!(handler instanceof AbstractHttp11Protocol)) {
+                    unsupported("connector tuning", handler.getClass().getSimpleName());
+                    return;
+                }
+                AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) handler;
+                if (settings.getWorkerThreads() != null) {
+                    protocol.setMaxThreads(settings.getWorkerThreads());
+                    protocol.setMinSpareThreads(Math.min(protocol.getMinSpareThreads(), settings.getWorkerThreads()));
+                }
+                if (settings.getIoThreads() != null) {
+                    if (protocol instanceof Http11NioProtocol) {
+                        ((Http11NioProtocol) protocol).setPollerThreadCount(settings.getIoThreads());
+                    }
+                    else {
+                        unsupported("io threads", protocol.getClass().getSimpleName());
+                    }
+                }
+                if (settings.getMaxConnections() != null) {
+                    protocol.setMaxConnections(settings.getMaxConnections());
+                }
+                if (settings.getAcceptBacklog() != null) {
+                    protocol.setBacklog(settings.getAcceptBacklog());
+                }
+                if (settings.getBufferSizeBytes() != null) {
+                    protocol.setProperty("socket.appReadBufSize", String.valueOf(settings.getBufferSizeBytes()));
+                    protocol.setProperty("socket.appWriteBufSize", String.valueOf(settings.getBufferSizeBytes()));
+                }
+                if (settings.getKeepAliveTimeoutMillis() != null) {
+                    protocol.setKeepAliveTimeout(settings.getKeepAliveTimeoutMillis());
+                }
+                if (settings.getMaxKeepAliveRequests() != null) {
+                    protocol.setMaxKeepAliveRequests(settings.getMaxKeepAliveRequests());
+                }
+            });
+            return factory;
+        }
+
+    }
+
+    private static class JettyFactory {
+
+        // Constants
+
+        private static final String ENGINE = "Jetty";
+
+        // Static
+
+        private static EmbeddedServletContainerFactory create(Trafficante.Settings settings) {
+            JettyEmbeddedServletContainerFactory factory = new JettyEmbeddedServletContainerFactory();
+            if (settings.getWorkerThreads() != null) {
+                QueuedThreadPool threadPool = new QueuedThreadPool(settings.getWorkerThreads());
+                threadPool.setMinThreads(Math.min(threadPool.getMinThreads(), settings.getWorkerThreads()));
+                factory.setThreadPool(threadPool);
+            }
+            if (settings.getIoThreads() != null) {
+                factory.setSelectors(settings.getIoThreads());
+            }
+            if (settings.getMaxConnections() != null) {
+                unsupported("max connections", ENGINE);
+            }
+            if (settings.getMaxKeepAliveRequests() != null) {
+                unsupported("max keep-alive requests", ENGINE);
+            }
+            factory.addServerCustomizers(server -> {
+                for (Connector connector : server.getConnectors()) {
+                    if (settings.getAcceptBacklog() != null && connector instanceof ServerConnector) {
+                        ((ServerConnector) connector).setAcceptQueueSize(settings.getAcceptBacklog());
+                    }
+                    if (settings.getKeepAliveTimeoutMillis() != null && connector instanceof AbstractConnector) {
+                        ((AbstractConnector) connector).setIdleTimeout(settings.getKeepAliveTimeoutMillis());
+                    }
+                    HttpConnectionFactory http = connector.getConnectionFactory(HttpConnectionFactory.class);
+                    if (settings.getBufferSizeBytes() != null && http != null) {
+                        http.getHttpConfiguration().setOutputBufferSize(settings.getBufferSizeBytes());
+                    }
+                }
+            });
+            return factory;
+        }
+
+    }
+
+    private static class UndertowFactory {
+
+        // Static
+
+        private static EmbeddedServletContainerFactory create(Trafficante.Settings settings) {
+            UndertowEmbeddedServletContainerFactory factory = new UndertowEmbeddedServletContainerFactory();
+            if (settings.getWorkerThreads() != null) {
+                factory.setWorkerThreads(settings.getWorkerThreads());
+            }
+            if (settings.getIoThreads() != null) {
+                factory.setIoThreads(settings.getIoThreads());
+            }
+            if (settings.getBufferSizeBytes() != null) {
+                factory.setBufferSize(settings.getBufferSizeBytes());
+            }
+            if (settings.getMaxKeepAliveRequests() != null) {
+                unsupported("max keep-alive requests", "Undertow");
+            }
+            factory.addBuilderCustomizers(builder -> {
+                if (settings.getMaxConnections() != null) {
+                    builder.setSocketOption(Options.CONNECTION_HIGH_WATER, settings.getMaxConnections());
+                    builder.setSocketOption(Options.CONNECTION_LOW_WATER, settings.getMaxConnections());
+                }
+                if (settings.getAcceptBacklog() != null) {
+                    builder.setSocketOption(Options.BACKLOG, settings.getAcceptBacklog());
+                }
+                if (settings.getKeepAliveTimeoutMillis() != null) {
+                    builder.setServerOption(UndertowOptions.NO_REQUEST_TIMEOUT, settings.getKeepAliveTimeoutMillis());
+                }
+            });
+            return factory;
+        }
+
+    }
+
+}
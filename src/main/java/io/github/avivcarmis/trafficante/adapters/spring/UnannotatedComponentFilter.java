@@ -1,39 +1,56 @@
 package io.github.avivcarmis.trafficante.adapters.spring;
 
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
+import io.github.avivcarmis.trafficante.adapters.index.EndpointIndex;
+import io.github.avivcarmis.trafficante.adapters.index.EndpointIndexProcessor;
 import io.github.avivcarmis.trafficante.core.BasicEndpoint;
 import io.github.avivcarmis.trafficante.core.BasicErrorHandler;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
 
-import java.util.Set;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * A type filter to identify @Component classes that are not annotated.
  * Includes everything that inherits SUPPORTED_CLASSES constant.
+ *
+ * Classes compiled with the {@link EndpointIndexProcessor} are matched by a lookup in the
+ * {@link EndpointIndex}. Any other class is matched by traversing its class hierarchy using
+ * the metadata read by the scan. Either way, scanned classes are never loaded.
  */
 public class UnannotatedComponentFilter implements TypeFilter {
 
     // Constants
 
-    private static final Set<Class<?>> SUPPORTED_CLASSES = ImmutableSet.of(
-            BasicEndpoint.class,
-            BasicErrorHandler.class
+    private static final List<TypeFilter> SUPPORTED_CLASSES = ImmutableList.of(
+            new AssignableTypeFilter(BasicEndpoint.class),
+            new AssignableTypeFilter(BasicErrorHandler.class)
     );
 
+    // Fields
+
+    private final EndpointIndex _index;
+
+    // Constructors
+
+    public UnannotatedComponentFilter() {
+        _index = EndpointIndex.load(ClassUtils.getDefaultClassLoader());
+    }
+
     // Public
 
     @Override
-    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
-        Class<?> beanClass;
-        try {
-            beanClass = Class.forName(metadataReader.getClassMetadata().getClassName());
-        } catch (ClassNotFoundException e) {
-            return false;
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory)
+            throws IOException {
+        if (_index.covers(metadataReader.getResource())) {
+            return _index.contains(metadataReader.getClassMetadata().getClassName());
         }
-        for (Class<?> supportedClass : SUPPORTED_CLASSES) {
-            if (supportedClass.isAssignableFrom(beanClass)) {
+        for (TypeFilter supportedClass : SUPPORTED_CLASSES) {
+            if (supportedClass.match(metadataReader, metadataReaderFactory)) {
                 return true;
             }
         }
@@ -16,7 +16,6 @@ import springfox.documentation.spi.service.contexts.RequestMappingContext;
 import springfox.documentation.spring.web.plugins.DocumentationPluginsManager;
 import springfox.documentation.spring.web.scanners.ApiModelReader;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,7 +35,7 @@ public class CautiousApiModelReader extends ApiModelReader {
 
     // Constants
 
-    private static final Set<String> USED_MODEL_NAMES = new HashSet<>();
+    private static final Set<String> USED_MODEL_NAMES = ConcurrentHashMap.newKeySet();
 
     private static final ConcurrentHashMap<String, String> MODEL_NAME_MAPPER = new ConcurrentHashMap<>();
 
@@ -124,19 +123,26 @@ public class CautiousApiModelReader extends ApiModelReader {
 
     // Static
 
+    /**
+     * Names the given type by its simple class name, numbered in case the name is already
+     * used by another type. Names are claimed atomically, so naming takes no global lock.
+     * @param type the type to name
+     * @return the model name of the type
+     */
     static String getModelName(ResolvedType type) {
+        String name = MODEL_NAME_MAPPER.get(type.getTypeName());
+        if (name != null) {
+            return name;
+        }
         return MODEL_NAME_MAPPER.computeIfAbsent(type.getTypeName(), t -> {
-            synchronized (USED_MODEL_NAMES) {
-                String baseName = type.getErasedType().getSimpleName();
-                String name = baseName;
-                int nextNumber = 1;
-                while (USED_MODEL_NAMES.contains(name)) {
-                    name = baseName + nextNumber;
-                    nextNumber++;
-                }
-                USED_MODEL_NAMES.add(name);
-                return name;
+            String baseName = type.getErasedType().getSimpleName();
+            String candidate = baseName;
+            int nextNumber = 1;
+            while (!USED_MODEL_NAMES.add(candidate)) {
+                candidate = baseName + nextNumber;
+                nextNumber++;
             }
+            return candidate;
         });
     }
 
@@ -0,0 +1,57 @@
+package io.github.avivcarmis.trafficante.adapters.swagger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.web.InMemorySwaggerResourcesProvider;
+import springfox.documentation.swagger.web.SwaggerResource;
+import springfox.documentation.swagger2.web.Swagger2Controller;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lists the offline swagger document for swagger UI when it is served, since
+ * endpoints are then never scanned, and {@link InMemorySwaggerResourcesProvider} finds no documents.
+ */
+@Component
+@Primary
+public class OfflineSwaggerResourcesProvider extends InMemorySwaggerResourcesProvider {
+
+    // Constants
+
+    private static final String SWAGGER_VERSION = "2.0";
+
+    // Fields
+
+    private final boolean _offline;
+
+    private final String _documentPath;
+
+    // Constructors
+
+    @Autowired
+    public OfflineSwaggerResourcesProvider(DocumentationCache documentationCache, Environment environment) {
+        super(documentationCache);
+        _offline = SwaggerConfiguration.isOfflineDocumentServed(environment);
+        _documentPath = environment.getProperty("springfox.documentation.swagger.v2.path", Swagger2Controller.DEFAULT_URL);
+    }
+
+    // Public
+
+    @Override
+    public List<SwaggerResource> get() {
+        if (!_offline) {
+            return super.get();
+        }
+        SwaggerResource resource = new SwaggerResource();
+        resource.setName(Docket.DEFAULT_GROUP_NAME);
+        resource.setLocation(_documentPath);
+        resource.setSwaggerVersion(SWAGGER_VERSION);
+        return Collections.singletonList(resource);
+    }
+
+}
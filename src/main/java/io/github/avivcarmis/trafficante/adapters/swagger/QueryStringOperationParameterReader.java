@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 import springfox.documentation.builders.ParameterBuilder;
 import springfox.documentation.schema.ModelRef;
 import springfox.documentation.schema.Types;
+import springfox.documentation.service.AllowableListValues;
 import springfox.documentation.service.Parameter;
 import springfox.documentation.service.ResolvedMethodParameter;
 import springfox.documentation.spi.service.contexts.OperationContext;
@@ -34,6 +35,10 @@ import static com.google.common.collect.Lists.newArrayList;
 @Component
 public class QueryStringOperationParameterReader extends OperationParameterReader {
 
+    // Constants
+
+    private static final String STRING_TYPE_NAME = "string";
+
     // Fields
 
     private final ObjectMapper _objectMapper;
@@ -76,13 +81,8 @@ public class QueryStringOperationParameterReader extends OperationParameterReade
                     .name(entry.getValue())
                     .required(field.getAnnotationsByType(Required.class).length > 0)
                     .allowMultiple(false)
-                    .modelRef(
-                            new ModelRef(
-                                    Types.typeNameFor(field.getType()),
-                                    null,
-                                    Map.class.isAssignableFrom(field.getType())
-                            )
-                    )
+                    .modelRef(modelRef(field.getType()))
+                    .allowableValues(allowableValues(field.getType()))
                     .type(_typeResolver.resolve(field.getType()))
                     .parameterType("query")
                     .hidden(false)
@@ -92,6 +92,29 @@ public class QueryStringOperationParameterReader extends OperationParameterReade
         return parameters;
     }
 
+    /**
+     * Values which are not scalars, such as enums, are bound from their string form,
+     * and are documented as strings rather than as a reference to an unnamed model
+     */
+    private ModelRef modelRef(Class<?> type) {
+        String typeName = Types.typeNameFor(type);
+        if (typeName != null) {
+            return new ModelRef(typeName, null, Map.class.isAssignableFrom(type));
+        }
+        return new ModelRef(STRING_TYPE_NAME, allowableValues(type));
+    }
+
+    private AllowableListValues allowableValues(Class<?> type) {
+        if (!type.isEnum()) {
+            return null;
+        }
+        List<String> values = newArrayList();
+        for (Object constant : type.getEnumConstants()) {
+            values.add(((Enum<?>) constant).name());
+        }
+        return new AllowableListValues(values, STRING_TYPE_NAME);
+    }
+
     private Map<Field, String> mapFields(Class<?> aClass) {
         Map<Field, String> result = new HashMap<>();
         JavaType type = TypeFactory.defaultInstance().constructType(aClass);
@@ -1,30 +1,69 @@
 package io.github.avivcarmis.trafficante.adapters.swagger;
 
+import com.fasterxml.classmate.TypeResolver;
 import com.google.common.base.Predicates;
+import io.github.avivcarmis.trafficante.core.RawJson;
 import io.github.avivcarmis.trafficante.core.Trafficante;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
+import springfox.documentation.schema.AlternateTypeRules;
+import springfox.documentation.schema.WildcardType;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 /**
- * Configures swagger
+ * Configures swagger.
+ *
+ * When a swagger document generated on build is found on the classpath, at `OFFLINE_DOCUMENT_LOCATION`,
+ * it is served as is, and endpoints are never scanned by Springfox. Such a document is generated by
+ * starting the server with the `trafficante.swagger.output` property set to the path of the file to write,
+ * see {@link SwaggerDocumentExporter}.
  */
 @Configuration
 @EnableSwagger2
 public class SwaggerConfiguration {
 
+    // Constants
+
+    public static final String OFFLINE_DOCUMENT_LOCATION = "META-INF/trafficante/swagger.json";
+
+    static final String OUTPUT_PROPERTY = "trafficante.swagger.output";
+
+    // Public
+
     @Bean
-    public Docket api() {
+    public Docket api(TypeResolver typeResolver, Environment environment) {
         return new Docket(DocumentationType.SWAGGER_2)
-                .enable(Trafficante.getSettings().isSwaggerEnabled())
+                .enable(Trafficante.getSettings().isSwaggerEnabled() && !isOfflineDocumentServed(environment))
+                .alternateTypeRules(AlternateTypeRules.newRule(
+                        typeResolver.resolve(DeferredResult.class,
+                                typeResolver.resolve(ResponseEntity.class, WildcardType.class)),
+                        typeResolver.resolve(WildcardType.class)
+                ))
+                .directModelSubstitute(RawJson.class, Object.class)
                 .select()
                 .apis(RequestHandlerSelectors.any())
                 .paths(Predicates.not(PathSelectors.regex("/error")))
                 .build();
     }
 
+    // Static
+
+    /**
+     * @param environment the server environment
+     * @return whether an offline document should be served instead of scanning endpoints,
+     * which is the case if it exists, unless a new one is being generated
+     */
+    static boolean isOfflineDocumentServed(Environment environment) {
+        return !environment.containsProperty(OUTPUT_PROPERTY) &&
+                new ClassPathResource(OFFLINE_DOCUMENT_LOCATION).exists();
+    }
+
 }
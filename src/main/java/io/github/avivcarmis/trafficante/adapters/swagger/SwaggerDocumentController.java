@@ -0,0 +1,191 @@
+package io.github.avivcarmis.trafficante.adapters.swagger;
+
+import io.github.avivcarmis.trafficante.core.Trafficante;
+import io.swagger.models.Swagger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import springfox.documentation.annotations.ApiIgnore;
+import springfox.documentation.service.Documentation;
+import springfox.documentation.spring.web.DocumentationCache;
+import springfox.documentation.spring.web.json.JsonSerializer;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
+import springfox.documentation.swagger2.web.Swagger2Controller;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the swagger document instead of {@link Swagger2Controller}.
+ *
+ * Each document is serialized once, when first requested, or read from the offline document
+ * generated on build, and is then served as is, along with an ETag so that clients may revalidate
+ * it for free. Unlike {@link Swagger2Controller}, the host is not taken from the request, so that
+ * a single document may be served to all clients, unless `springfox.documentation.swagger.v2.host`
+ * is set. Swagger clients default to the host serving the document.
+ * When swagger is disabled, no document is served, not even the offline one.
+ */
+@ApiIgnore
+@RestController
+public class SwaggerDocumentController {
+
+    // Constants
+
+    private static final String HOST_PROPERTY = "springfox.documentation.swagger.v2.host";
+
+    private static final String HAL_MEDIA_TYPE = "application/hal+json";
+
+    // Fields
+
+    private final DocumentationCache _documentationCache;
+
+    private final ServiceModelToSwagger2Mapper _mapper;
+
+    private final JsonSerializer _jsonSerializer;
+
+    private final String _host;
+
+    private final boolean _enabled;
+
+    private final boolean _offline;
+
+    private final ConcurrentHashMap<String, Document> _documents;
+
+    // Constructors
+
+    @Autowired
+    public SwaggerDocumentController(DocumentationCache documentationCache,
+                                     ServiceModelToSwagger2Mapper mapper,
+                                     JsonSerializer jsonSerializer,
+                                     Environment environment) {
+        _documentationCache = documentationCache;
+        _mapper = mapper;
+        _jsonSerializer = jsonSerializer;
+        _host = environment.getProperty(HOST_PROPERTY);
+        _enabled = Trafficante.getSettings().isSwaggerEnabled();
+        _offline = SwaggerConfiguration.isOfflineDocumentServed(environment);
+        _documents = new ConcurrentHashMap<>();
+    }
+
+    // Public
+
+    @SuppressWarnings("unused")
+    @RequestMapping(
+            value = "${springfox.documentation.swagger.v2.path:" + Swagger2Controller.DEFAULT_URL + "}",
+            method = RequestMethod.GET,
+            produces = {MediaType.APPLICATION_JSON_VALUE, HAL_MEDIA_TYPE}
+    )
+    public ResponseEntity<byte[]> getDocumentation(@RequestParam(value = "group", required = false) String group,
+                                                   HttpServletRequest servletRequest) throws IOException {
+        if (!_enabled) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String groupName = group == null ? Docket.DEFAULT_GROUP_NAME : group;
+        Document document = _documents.get(groupName);
+        if (document == null) {
+            byte[] body = _offline ? readOffline(groupName) : render(groupName, servletRequest.getContextPath());
+            if (body == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            document = _documents.computeIfAbsent(groupName, g -> new Document(body));
+        }
+        if (isNotModified(servletRequest.getHeader(HttpHeaders.IF_NONE_MATCH), document._etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(document._etag).build();
+        }
+        return ResponseEntity
+                .ok()
+                .eTag(document._etag)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .body(document._body);
+    }
+
+    // Private
+
+    /**
+     * Serializes the document of the given group, as scanned by Springfox
+     * @param groupName   the name of the documentation group
+     * @param contextPath the context path of the server, to be used as the base path
+     * @return the serialized document, or null if there is no such group
+     */
+    byte[] render(String groupName, String contextPath) {
+        Documentation documentation = _documentationCache.documentationByGroup(groupName);
+        if (documentation == null) {
+            return null;
+        }
+        Swagger swagger = _mapper.mapDocumentation(documentation);
+        swagger.basePath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        if (_host != null && !_host.isEmpty() && !_host.equals("DEFAULT")) {
+            swagger.host(_host);
+        }
+        return _jsonSerializer.toJson(swagger).value().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] readOffline(String groupName) throws IOException {
+        if (!Docket.DEFAULT_GROUP_NAME.equals(groupName)) {
+            return null;
+        }
+        try (InputStream stream = new ClassPathResource(SwaggerConfiguration.OFFLINE_DOCUMENT_LOCATION).getInputStream()) {
+            return StreamUtils.copyToByteArray(stream);
+        }
+    }
+
+    // Static
+
+    /**
+     * @param ifNoneMatch the value of the `If-None-Match` header of a request, may be null
+     * @param etag        the current ETag of the document
+     * @return whether the client already holds the current document
+     */
+    private static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Inner
+
+    /**
+     * A serialized document
+     */
+    private static class Document {
+
+        // Fields
+
+        private final byte[] _body;
+
+        private final String _etag;
+
+        // Constructors
+
+        private Document(byte[] body) {
+            _body = body;
+            _etag = '"' + DigestUtils.md5DigestAsHex(body) + '"';
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package io.github.avivcarmis.trafficante.adapters.swagger;
+
+import io.github.avivcarmis.trafficante.core.Trafficante;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import javax.servlet.ServletContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the offline swagger document on build.
+ * When the server is started with the `trafficante.swagger.output` property, writes the document
+ * to the given path once the server is ready, and then stops the server. Bundle the written file
+ * as `META-INF/trafficante/swagger.json` on the classpath to serve it without scanning endpoints.
+ */
+@Component
+@ConditionalOnProperty(name = SwaggerConfiguration.OUTPUT_PROPERTY)
+public class SwaggerDocumentExporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    // Constants
+
+    private static final Logger LOG = LoggerFactory.getLogger(SwaggerDocumentExporter.class);
+
+    // Fields
+
+    private final SwaggerDocumentController _controller;
+
+    private final ServletContext _servletContext;
+
+    private final Path _output;
+
+    // Constructors
+
+    @Autowired
+    public SwaggerDocumentExporter(SwaggerDocumentController controller,
+                                   ServletContext servletContext,
+                                   @Value("${" + SwaggerConfiguration.OUTPUT_PROPERTY + "}") String output) {
+        _controller = controller;
+        _servletContext = servletContext;
+        _output = Paths.get(output);
+    }
+
+    // Public
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!Trafficante.getSettings().isSwaggerEnabled()) {
+            throw new IllegalStateException("swagger must be enabled to generate the swagger document");
+        }
+        byte[] document = _controller.render(Docket.DEFAULT_GROUP_NAME, _servletContext.getContextPath());
+        if (document == null) {
+            throw new IllegalStateException("swagger document was not scanned");
+        }
+        try {
+            Path parent = _output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(_output, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write swagger document to " + _output, e);
+        }
+        LOG.info("swagger document written to {}", _output.toAbsolutePath());
+        SpringApplication.exit(event.getApplicationContext());
+    }
+
+}
@@ -0,0 +1,98 @@
+package io.github.avivcarmis.trafficante.core;
+
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An asynchronous endpoint for the API server.
+ * Extend this class to create a handler which produces its response
+ * asynchronously, without holding a server thread while waiting for it.
+ *
+ * The request is parsed, validated and logged exactly like in {@link BasicEndpoint},
+ * and the response is wrapped using the same {@link #wrapResponse(Object)} and
+ * {@link #wrapFailure(Throwable)} methods, once the stage returned by
+ * {@link #handleAsync(Object)} completes.
+ *
+ * @param <REQ>         the type of the endpoint request entity
+ * @param <RES>         the type of the endpoint response entity
+ * @param <RES_WRAPPER> supplies a standard wrapping for the endpoint response,
+ *                     to allow unified API across the entire server
+ */
+abstract public class BasicAsyncEndpoint<REQ, RES, RES_WRAPPER> extends BasicEndpoint<REQ, RES, RES_WRAPPER> {
+
+    // Constructors
+
+    public BasicAsyncEndpoint(RequestMethod httpMethod, boolean enableFlowLogging) {
+        super(httpMethod, enableFlowLogging);
+    }
+
+    // Public
+
+    /**
+     * To be overridden in case some operations should be performed before and/or
+     * after handling the request. For example, measuring execution time, extra logging, etc...
+     * @param request the parsed client request
+     * @return a stage completing with the produced endpoint response
+     * @throws APIException in case execution has failed
+     */
+    public CompletionStage<RES> defaultAsyncInvocationWrapper(REQ request) throws APIException {
+        return handleAsync(request);
+    }
+
+    // Private
+
+    /**
+     * Starts the execution using {@link #defaultAsyncInvocationWrapper(Object)},
+     * on the bulkhead of the endpoint if it has one, unless the call has already expired.
+     */
+    @Override
+    CompletionStage<RES> invokeAsync(REQ request) throws APIException {
+        Bulkhead bulkhead = getBulkhead();
+        if (bulkhead == null) {
+            return invokeUnlessExpired(request);
+        }
+        return bulkhead.submit(() -> invokeUnlessExpired(request)).thenCompose(stage -> stage);
+    }
+
+    private CompletionStage<RES> invokeUnlessExpired(REQ request) throws APIException {
+        RequestContext.current().checkDeadline();
+        return defaultAsyncInvocationWrapper(request);
+    }
+
+    /**
+     * Blocks until the asynchronous execution completes.
+     * Used only when the endpoint is invoked synchronously through {@link #doAPICall(Object)}.
+     */
+    @Override
+    protected final RES handle(REQ request) throws APIException {
+        try {
+            return defaultAsyncInvocationWrapper(request).toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for response", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof APIException) {
+                throw (APIException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * The asynchronous execution of the endpoint.
+     * The stage may be completed on any thread. Request headers, response headers and
+     * the response status code may be accessed on other threads through the {@link RequestContext}
+     * of the call, as long as the stage has not yet completed, for example by executing
+     * work with {@link RequestContext#wrap(java.util.concurrent.Executor)}.
+     * @param request the parsed client request
+     * @return a stage completing with the produced endpoint response,
+     * or exceptionally with an {@link APIException} in case execution has failed
+     * @throws APIException in case execution has failed
+     */
+    abstract protected CompletionStage<RES> handleAsync(REQ request) throws APIException;
+
+}
@@ -1,14 +1,28 @@
 package io.github.avivcarmis.trafficante.core;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.google.common.io.ByteStreams;
 import io.github.avivcarmis.trafficante.exceptions.APIException;
 import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -17,16 +31,27 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.HeadersRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ParamsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A basic endpoint for the API server.
@@ -38,6 +63,36 @@ import java.util.List;
  *
  * Methods named `defaultX` may also be overridden to alter behaviour.
  *
+ * An endpoint may be isolated from the rest of the server by providing a {@link Bulkhead} of the
+ * {@link #getBulkheadRegistry()} from {@link #defaultBulkheadProvider()}. In that case, requests are executed on the threads
+ * of the bulkhead rather than on the server threads, and are rejected immediately when the
+ * bulkhead is saturated.
+ *
+ * Concurrent equal requests may be coalesced into a single execution by enabling
+ * {@link #defaultRequestCoalescingProvider()}.
+ *
+ * Responses may be compressed for clients accepting it by providing a {@link Compression}
+ * from {@link #defaultCompressionProvider()}.
+ *
+ * Calls may be rate limited, as a whole or per client, by providing a {@link RateLimiter}
+ * from {@link #defaultRateLimiterProvider()}, and excess concurrent calls may be shed according to
+ * the observed latency by providing a {@link ConcurrencyLimiter} from {@link #defaultConcurrencyLimiterProvider()}.
+ *
+ * Calls may be given a deadline by {@link #defaultDeadlineProvider()}, which clients may be allowed to shorten
+ * using a request header, see {@link #defaultDeadlineHeaderProvider()}. Calls which expire before they are
+ * handled are not handled at all, and are failed with {@link HttpStatus#GATEWAY_TIMEOUT}.
+ *
+ * Failures raised by the framework, such as rejections and timeouts, are shared {@link ConstantAPIException}s,
+ * and unexpected exceptions are all wrapped as a shared internal server error, so failing calls fill no stack traces.
+ *
+ * Endpoints may opt in to read JSON request bodies, and write JSON responses of synchronous calls, by a reader
+ * and a writer prebuilt for the request and response wrapper types of the endpoint, rather than through
+ * the message converters. See {@link #defaultDirectJsonProvider()}.
+ *
+ * When the server settings enable warm-up, synthetic requests are parsed, validated and answered by each
+ * endpoint before the server accepts connections, without handling them unless the endpoint opts in.
+ * See {@link #defaultWarmUpRequestsProvider()} and {@link #defaultWarmUpHandlingProvider()}.
+ *
  * @param <REQ>         the type of the endpoint request entity
  * @param <RES>         the type of the endpoint response entity
  * @param <RES_WRAPPER> supplies a standard wrapping for the endpoint response,
@@ -49,11 +104,12 @@ abstract public class BasicEndpoint<REQ, RES, RES_WRAPPER> {
 
     private static final Log LOG = LogFactory.getLog(BasicEndpoint.class);
 
-    private static final ThreadLocal<HttpServletRequest> SERVLET_REQUEST_THREAD_LOCAL = new ThreadLocal<>();
-
-    private static final ThreadLocal<MultiValueMap<String, String>> RESPONSE_HEADERS_THREAD_LOCAL = new ThreadLocal<>();
+    /**
+     * The failure wrapped in place of unexpected exceptions, to avoid exposing them to clients
+     */
+    private static final RuntimeException INTERNAL_SERVER_ERROR = new InternalServerError();
 
-    private static final ThreadLocal<HttpStatus> RESPONSE_STATUS_THREAD_LOCAL = new ThreadLocal<>();
+    private static final ConstantAPIException ASYNC_TIMEOUT = new ConstantAPIException("request timed out", HttpStatus.SERVICE_UNAVAILABLE);
 
     // Fields
 
@@ -63,9 +119,45 @@ abstract public class BasicEndpoint<REQ, RES, RES_WRAPPER> {
 
     private final boolean _enableFlowLogging;
 
+    private final EndpointMetrics _metrics;
+
     @Autowired
     private ObjectMapper _objectMapper;
 
+    @Autowired
+    private BulkheadRegistry _bulkheadRegistry;
+
+    @Autowired
+    private ConcurrencyLimiterRegistry _concurrencyLimiterRegistry;
+
+    private RequestValidator _validator;
+
+    private Bulkhead _bulkhead;
+
+    private FlowLogger _flowLogger;
+
+    private ResponseCache _responseCache;
+
+    private Compression _compression;
+
+    private RateLimiter<REQ> _rateLimiter;
+
+    private ConcurrencyLimiter _concurrencyLimiter;
+
+    private Long _deadlineMillis;
+
+    private String _deadlineHeader;
+
+    private SingleFlight<SharedResponse<RES>> _singleFlight;
+
+    private boolean _directJson;
+
+    private Class<?> _responseWrapperClass;
+
+    private ObjectWriter _responseWrapperWriter;
+
+    private ObjectWriter _responseWriter;
+
     // Constructors
 
     public BasicEndpoint(RequestMethod httpMethod, boolean enableFlowLogging) {
@@ -75,55 +167,141 @@ abstract public class BasicEndpoint<REQ, RES, RES_WRAPPER> {
         _httpMethod = httpMethod;
         _enableFlowLogging = enableFlowLogging;
         _apiPath = httpMethod.name() + " " + defaultPathProvider();
+        _metrics = new EndpointMetrics(_apiPath);
     }
 
     // Public
 
     @SuppressWarnings("unused")
     public final @ResponseBody ResponseEntity<RES_WRAPPER> doAPICall(@RequestBody REQ request) {
-        RES_WRAPPER response;
+        RequestContext previous = RequestContext.current();
         try {
-            logEnter(request);
-            responseStatusCode(HttpStatus.OK);
-            RESPONSE_HEADERS_THREAD_LOCAL.set(new LinkedMultiValueMap<>());
-            SERVLET_REQUEST_THREAD_LOCAL.set(((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest());
-            validateObject(_objectMapper.getPropertyNamingStrategy(), request);
-            if (request instanceof Validatable) {
-                ((Validatable) request).validate();
+            RES_WRAPPER response;
+            try {
+                beginCall(request, compressedServletRequest());
+                if (serveCachedResponse(request)) {
+                    return null;
+                }
+                response = wrapResponse(_singleFlight == null ? invoke(request) : awaitCoalesced(request));
+            } catch (Throwable t) {
+                response = wrapCallFailure(t);
+            }
+            return write(endCall(request, response));
+        } finally {
+            RequestContext.restore(previous);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public final @ResponseBody DeferredResult<ResponseEntity<RES_WRAPPER>> doAsyncAPICall(@RequestBody REQ request) {
+        RequestContext previous = RequestContext.current();
+        CompletionStage<RES> stage;
+        RequestContext context;
+        try {
+            beginCall(request, compressedServletRequest());
+            if (serveCachedResponse(request)) {
+                return null;
             }
-            response = wrapResponse(defaultInvocationWrapper(request));
-        } catch (APIException e) {
-            response = wrapFailure(e);
-            responseStatusCode(e.getStatusCode());
+            stage = _singleFlight == null ? invokeAsync(request) : invokeCoalesced(request);
         } catch (Throwable t) {
-            response = wrapFailure(new RuntimeException("internal server error occurred"));
-            responseStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            DeferredResult<ResponseEntity<RES_WRAPPER>> failure = new DeferredResult<>();
+            failure.setResult(endCall(request, wrapCallFailure(t)));
+            return failure;
+        } finally {
+            context = RequestContext.current();
+            RequestContext.restore(previous);
         }
-        ResponseEntity<RES_WRAPPER> entity = new ResponseEntity<>(response, RESPONSE_HEADERS_THREAD_LOCAL.get(), RESPONSE_STATUS_THREAD_LOCAL.get());
-        logExit(entity);
-        return entity;
+        DeferredResult<ResponseEntity<RES_WRAPPER>> result = new DeferredResult<>(asyncTimeout(context));
+        // the timeout and the completion race, only the first of them wraps and ends the call
+        AtomicBoolean completed = new AtomicBoolean(false);
+        result.onTimeout(context.wrap(() -> {
+            if (completed.compareAndSet(false, true)) {
+                result.setResult(endCall(request, wrapCallFailure(context.isExpired() ?
+                        RequestContext.DEADLINE_EXCEEDED :
+                        ASYNC_TIMEOUT)));
+            }
+        }));
+        stage.whenComplete((response, t) -> {
+            if (completed.compareAndSet(false, true)) {
+                result.setResult(completeCall(request, context, response, t));
+            }
+        });
+        return result;
     }
 
     @SuppressWarnings("unused")
     @ExceptionHandler(Throwable.class)
     public final @ResponseBody ResponseEntity<RES_WRAPPER> errorHandler(Throwable t) {
-        RES_WRAPPER response;
-        HttpStatus status;
+        compressedServletRequest();
         if (t instanceof APIException) {
-            response = wrapFailure(t);
-            status = ((APIException) t).getStatusCode();
-        }
-        else {
-            response = wrapFailure(new RuntimeException("internal server error occurred"));
-            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            return new ResponseEntity<>(wrapFailure(t), null, ((APIException) t).getStatusCode());
         }
-        return new ResponseEntity<>(response, null, status);
+        return new ResponseEntity<>(wrapFailure(INTERNAL_SERVER_ERROR), null, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     public final RequestMethod getHttpMethod() {
         return _httpMethod;
     }
 
+    /**
+     * @return the performance metrics of this endpoint
+     */
+    public final EndpointMetrics getMetrics() {
+        return _metrics;
+    }
+
+    /**
+     * @return the response cache of this endpoint, or null if responses are not cached
+     */
+    public final ResponseCache getResponseCache() {
+        return _responseCache;
+    }
+
+    /**
+     * @return the compression of the responses of this endpoint, or null if responses are not compressed
+     */
+    public final Compression getCompression() {
+        return _compression;
+    }
+
+    /**
+     * @return the rate limiter of the calls to this endpoint, or null if calls are not rate limited
+     */
+    public final RateLimiter<REQ> getRateLimiter() {
+        return _rateLimiter;
+    }
+
+    /**
+     * @return the limiter of the calls concurrently in flight to this endpoint, or null if not limited
+     */
+    public final ConcurrencyLimiter getConcurrencyLimiter() {
+        return _concurrencyLimiter;
+    }
+
+    /**
+     * @return the bulkhead executing the requests of this endpoint, or null if requests
+     * are executed on the server threads
+     */
+    public final Bulkhead getBulkhead() {
+        return _bulkhead;
+    }
+
+    /**
+     * @return the registry of the bulkheads of the application context, to create or look up
+     * the bulkhead to provide from {@link #defaultBulkheadProvider()}
+     */
+    protected final BulkheadRegistry getBulkheadRegistry() {
+        return _bulkheadRegistry;
+    }
+
+    /**
+     * @return the registry of the concurrency limiters of the application context, to create or look up
+     * the limiter to provide from {@link #defaultConcurrencyLimiterProvider()}
+     */
+    protected final ConcurrencyLimiterRegistry getConcurrencyLimiterRegistry() {
+        return _concurrencyLimiterRegistry;
+    }
+
     /**
      * To be overridden in case some operations should be performed before and/or
      * after handling the request. For example, measuring execution time, extra logging, etc...
@@ -146,6 +324,162 @@ abstract public class BasicEndpoint<REQ, RES, RES_WRAPPER> {
                 .nameForField(null, null, getClass().getSimpleName());
     }
 
+    /**
+     * To be overridden in case the endpoint should be isolated from the rest of the server.
+     * Endpoints returning the same named bulkhead of {@link #getBulkheadRegistry()} share its threads and limits.
+     * @return the bulkhead to execute requests with, or null to execute them on the server threads
+     */
+    public Bulkhead defaultBulkheadProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case successful responses should be cached, and served to requests
+     * with equal parameters without invoking the endpoint. Applies to query string endpoints only.
+     * Note that validation of cached requests still takes place, and that cached responses
+     * are served as JSON, so requests preferring another format bypass the cache.
+     * Responses are keyed by the request entity only, so they must not depend on anything else, e.g. on
+     * request headers, unless these headers are included in keys, see {@link #defaultRequestKeyHeadersProvider()}.
+     * @return a response cache dedicated to this endpoint, or null to disable caching
+     */
+    public ResponseCache defaultResponseCacheProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case responses should be compressed for clients accepting it.
+     * Note that compressed responses are buffered until complete, and that calls within a batch
+     * are compressed along with the batch response only.
+     * @return a compression dedicated to this endpoint, or null to disable compression
+     */
+    public Compression defaultCompressionProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case calls should be rate limited. Calls exceeding the limit are failed
+     * with {@link HttpStatus#TOO_MANY_REQUESTS} and a `Retry-After` header, after they are validated
+     * and before cached responses are served.
+     * @return a rate limiter dedicated to this endpoint, or null to disable rate limiting
+     */
+    public RateLimiter<REQ> defaultRateLimiterProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case the amount of calls in flight should adapt to the observed latency.
+     * Calls exceeding the limit are failed with {@link HttpStatus#SERVICE_UNAVAILABLE} immediately,
+     * after they pass the rate limit. Calls are in flight until their response is complete, including
+     * time spent waiting for a bulkhead.
+     * Endpoints returning the same named limiter of {@link #getConcurrencyLimiterRegistry()} share its limit.
+     * @return the concurrency limiter to admit calls with, or null to admit all calls
+     */
+    public ConcurrencyLimiter defaultConcurrencyLimiterProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case concurrent requests with equal parameters should share a single execution.
+     * While a request is executing, equal requests wait for it rather than executing, and each
+     * receive its response or failure, wrapped separately, along with any response headers and
+     * status code set during the execution.
+     * Note that the shared response instance is wrapped for each request, so it should not be modified
+     * by {@link #wrapResponse(Object)}, and that this is usually not desired for endpoints with side effects.
+     * Requests are considered equal by their request entity only, so responses must not depend on anything
+     * else, e.g. on an authorization or tenant header, unless it is included, see
+     * {@link #defaultRequestKeyHeadersProvider()}.
+     * @return whether equal concurrent requests should be coalesced
+     */
+    public boolean defaultRequestCoalescingProvider() {
+        return false;
+    }
+
+    /**
+     * To be overridden in case responses which are cached or coalesced depend on request headers,
+     * e.g. an authorization or a tenant header, so that requests differing in their values never
+     * share a response.
+     * @return the names of the request headers to distinguish equal requests by, or null for none
+     */
+    public List<String> defaultRequestKeyHeadersProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case the response should time out after a specific duration.
+     * Applies only to requests executed asynchronously, that is by a {@link BasicAsyncEndpoint}
+     * or by an endpoint with a bulkhead, and to calls within a batch. By default, the async request
+     * timeout of the server applies, which for calls within a batch is the timeout of the batch.
+     * @return the timeout in milliseconds, or null to use the server default
+     */
+    public Long defaultAsyncTimeoutProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case calls should have a deadline, after which their clients are no longer
+     * expected to read the response. Calls which expire before their execution starts, e.g. while waiting
+     * for a bulkhead, are failed with {@link HttpStatus#GATEWAY_TIMEOUT} without being handled, and so are
+     * asynchronously executed calls which expire before completing. Synchronous handlers may stop early
+     * using {@link RequestContext#checkDeadline()}.
+     * @return the deadline in milliseconds from the start of the call, or null for no deadline
+     */
+    public Long defaultDeadlineProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case clients should be able to shorten the deadline of their calls,
+     * usually by returning {@link RequestContext#DEADLINE_HEADER}. Malformed header values are
+     * rejected with {@link HttpStatus#BAD_REQUEST}.
+     * Coalesced executions are never bound by the deadline of a single client.
+     * @return the name of the request header specifying the deadline of the client in milliseconds,
+     * or null to ignore client deadlines
+     */
+    public String defaultDeadlineHeaderProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case JSON request bodies and responses should bypass the message converters.
+     * Only endpoints whose bodies are not customized through the message converters, e.g. by a RequestBodyAdvice,
+     * a ResponseBodyAdvice or a custom JSON converter, should opt in, as these are bypassed as well.
+     * Requests and responses in other formats always go through the message converters, and so do responses
+     * of endpoints whose produces condition excludes JSON.
+     * @return whether JSON request bodies should be read, and JSON responses of synchronous calls written,
+     * directly, by a reader and a writer prebuilt for the types of the endpoint
+     */
+    public boolean defaultDirectJsonProvider() {
+        return false;
+    }
+
+    /**
+     * To be overridden in case requests synthesized from the request type do not represent real traffic,
+     * e.g. when they always fail validation.
+     * @return the requests to warm up the endpoint with, or null to synthesize a request from its type
+     */
+    public List<REQ> defaultWarmUpRequestsProvider() {
+        return null;
+    }
+
+    /**
+     * To be overridden in case handling the warm-up requests has no side effects, so that the handler
+     * is warmed up as well. Handlers are executed without a servlet request, so all request headers are read as null.
+     * @return whether warm-up requests should be handled, rather than answered with a synthesized response
+     */
+    public boolean defaultWarmUpHandlingProvider() {
+        return false;
+    }
+
+    /**
+     * To be overridden in case only a portion of the calls should be flow logged.
+     * Calls ending with an error status are always logged.
+     * Applies only when flow logging is enabled for the endpoint.
+     * @return the portion of calls to log, between 0 and 1
+     */
+    public double defaultFlowLogSamplingRateProvider() {
+        return 1;
+    }
+
     public ParamsRequestCondition defaultParamsRequestConditionProvider() {
         return null;
     }
@@ -164,62 +498,469 @@ abstract public class BasicEndpoint<REQ, RES, RES_WRAPPER> {
 
     // Private
 
-    private void logEnter(REQ request) {
-        logMessage("Entering " + _apiPath + " with " + _objectMapper.valueToTree(request));
+    /**
+     * Executes a call within a batch, bypassing the servlet layer.
+     * The call is validated, executed, wrapped, recorded and flow logged exactly like a direct call,
+     * using the headers of the batch request. Cached responses are returned as raw JSON bodies.
+     * Executions are bound by the async timeout of the endpoint and the deadline of the call, like
+     * asynchronous direct calls, and calls timing out are answered with a failure.
+     * @param binder         binds the request entity of the call, may throw an {@link APIException}
+     * @param servletRequest the batch request
+     * @param timer          schedules the timeouts of executions
+     * @return a stage completing with the response entity of the call
+     */
+    CompletionStage<ResponseEntity<?>> doBatchedCall(Callable<REQ> binder,
+                                                     HttpServletRequest servletRequest,
+                                                     ScheduledExecutorService timer) {
+        RequestContext previous = RequestContext.current();
+        try {
+            REQ request;
+            try {
+                request = binder.call();
+            } catch (Throwable t) {
+                initCall(null, servletRequest);
+                return CompletableFuture.completedFuture(endCall(null, wrapCallFailure(t)));
+            }
+            CompletionStage<RES> stage;
+            try {
+                beginCall(request, servletRequest);
+                ResponseCache.CachedResponse cached = _responseCache == null || !prefersJson(servletRequest) ?
+                        null :
+                        _responseCache.get(request);
+                if (cached != null) {
+                    RawValue body = new RawValue(new String(cached.getBody(), StandardCharsets.UTF_8));
+                    traceEnd(cached.getStatus(), body);
+                    return CompletableFuture.completedFuture(new ResponseEntity<>(body, cached.getHeaders(), cached.getStatus()));
+                }
+                stage = _singleFlight == null ? invokeAsync(request) : invokeCoalesced(request);
+            } catch (Throwable t) {
+                return CompletableFuture.completedFuture(endCall(request, wrapCallFailure(t)));
+            }
+            RequestContext context = RequestContext.current();
+            Long timeout = asyncTimeout(context);
+            if (timeout == null) {
+                return stage.handle((response, t) -> completeCall(request, context, response, t));
+            }
+            CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+            // the timeout and the completion race, only the first of them wraps and ends the call
+            AtomicBoolean completed = new AtomicBoolean(false);
+            ScheduledFuture<?> timeoutTask = timer.schedule(context.wrap(() -> {
+                if (completed.compareAndSet(false, true)) {
+                    result.complete(endCall(request, wrapCallFailure(context.isExpired() ?
+                            RequestContext.DEADLINE_EXCEEDED :
+                            ASYNC_TIMEOUT)));
+                }
+            }), timeout, TimeUnit.MILLISECONDS);
+            stage.whenComplete((response, t) -> {
+                if (completed.compareAndSet(false, true)) {
+                    timeoutTask.cancel(false);
+                    result.complete(completeCall(request, context, response, t));
+                }
+            });
+            return result;
+        } finally {
+            RequestContext.restore(previous);
+        }
     }
 
-    private void logExit(ResponseEntity<RES_WRAPPER> response) {
-        logMessage("Exiting " + _apiPath + " with status " + response.getStatusCode() + " and body " +
-                _objectMapper.valueToTree(response.getBody()).toString());
+    /**
+     * Logs, binds a new request context to the calling thread, sets its deadline, validates the request
+     * and applies the rate and concurrency limits
+     * @param request        the parsed client request
+     * @param servletRequest the servlet request of the call
+     * @throws APIException in case the request is not valid, or exceeds the rate or concurrency limit
+     */
+    void beginCall(REQ request, HttpServletRequest servletRequest) throws APIException {
+        initCall(request, servletRequest);
+        applyDeadline(servletRequest);
+        _validator.validate(request);
+        if (request instanceof Validatable) {
+            ((Validatable) request).validate();
+        }
+        if (_rateLimiter != null) {
+            _rateLimiter.acquire(request);
+        }
+        if (_concurrencyLimiter != null) {
+            _concurrencyLimiter.acquire();
+            RequestContext.current().getCallTrace().admittedBy(_concurrencyLimiter);
+        }
     }
 
-    private void logMessage(String message) {
-        if (_enableFlowLogging) {
-            LOG.info(message);
+    /**
+     * Executes a warm-up call, bypassing the servlet layer: validates the request, wraps a response and
+     * serializes it, discarding the result. Requests failing validation are answered with their failure.
+     * Nothing is limited, recorded, flow logged or cached. The call is executed within a request context
+     * without a servlet request, and a stream it produces is closed once serialized.
+     * @param request  a request parsed from a warm-up sample
+     * @param response the response to answer with, ignored if the endpoint handles warm-up requests
+     * @throws Exception in case the request could not be handled, wrapped or serialized
+     */
+    void warmUp(REQ request, RES response) throws Exception {
+        CallTrace trace = new CallTrace(System.nanoTime(), null);
+        RequestContext previous = new RequestContext(null, trace).attach();
+        try {
+            RES_WRAPPER wrapped;
+            try {
+                _validator.validate(request);
+                if (request instanceof Validatable) {
+                    ((Validatable) request).validate();
+                }
+                wrapped = wrapResponse(defaultWarmUpHandlingProvider() ? defaultInvocationWrapper(request) : response);
+            } catch (APIException e) {
+                wrapped = wrapFailure(e);
+            }
+            writerFor(wrapped).writeValue(ByteStreams.nullOutputStream(), wrapped);
+        } finally {
+            ResponseStream<?> stream = trace.takePendingStream();
+            if (stream != null) {
+                stream.close();
+            }
+            RequestContext.restore(previous);
         }
     }
 
-    private void validateObject(PropertyNamingStrategy strategy, Object toValidate) throws BadRequestException {
-        for (Field field : listClassFields(toValidate.getClass())) {
-            validateField(strategy, toValidate, field);
+    /**
+     * Starts the execution of an asynchronously handled request.
+     * By default, executes {@link #defaultInvocationWrapper(Object)} on the bulkhead of the endpoint,
+     * or on the calling thread if the endpoint has none.
+     * @param request the parsed and validated client request
+     * @return a stage completing with the produced endpoint response
+     * @throws APIException in case execution has failed, or the bulkhead is saturated
+     */
+    CompletionStage<RES> invokeAsync(REQ request) throws APIException {
+        if (_bulkhead == null) {
+            return CompletableFuture.completedFuture(invoke(request));
         }
+        return _bulkhead.submit(() -> invoke(request));
     }
 
-    private void validateField(PropertyNamingStrategy strategy, Object ownerObject, Field field)
-            throws BadRequestException {
-        Required[] annotations = field.getAnnotationsByType(Required.class);
-        if (annotations == null || annotations.length == 0) {
-            return;
+    /**
+     * Executes {@link #defaultInvocationWrapper(Object)}, unless the call has already expired
+     * @param request the parsed and validated client request
+     * @return the produced endpoint response
+     * @throws APIException in case execution has failed, or the call has expired
+     */
+    private RES invoke(REQ request) throws APIException {
+        RequestContext.current().checkDeadline();
+        return defaultInvocationWrapper(request);
+    }
+
+    /**
+     * Wraps a failure of the call and sets the response status accordingly
+     * @param t the throwable causing the failure
+     * @return a wrapped response
+     */
+    RES_WRAPPER wrapCallFailure(Throwable t) {
+        _metrics.recordFailure(t);
+        if (t instanceof APIException) {
+            RES_WRAPPER response = wrapFailure(t);
+            RequestContext.current().setResponseStatus(((APIException) t).getStatusCode());
+            return response;
         }
+        RES_WRAPPER response = wrapFailure(INTERNAL_SERVER_ERROR);
+        RequestContext.current().setResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+        return response;
+    }
+
+    /**
+     * Wraps the outcome of an asynchronous execution and ends the call, using the given request context
+     * @param request  the parsed client request
+     * @param context  the request context of the call
+     * @param response the produced endpoint response, ignored in case of failure
+     * @param t        the failure of the execution, or null if succeeded
+     * @return the response entity
+     */
+    ResponseEntity<RES_WRAPPER> completeCall(REQ request, RequestContext context, RES response, Throwable t) {
+        RequestContext previous = context.attach();
         try {
-            field.setAccessible(true);
-            Object value = field.get(ownerObject);
-            if (value == null) {
-                String name = field.getName();
-                if (strategy != null) {
-                    name = strategy.nameForField(null, null, field.getName());
-                }
-                throw new BadRequestException("field `" + name + "` is required");
+            RES_WRAPPER wrapped;
+            try {
+                wrapped = t == null ? wrapResponse(response) : wrapCallFailure(unwrap(t));
+            } catch (Throwable wrappingFailure) {
+                wrapped = wrapCallFailure(wrappingFailure);
+            }
+            return endCall(request, wrapped);
+        } finally {
+            RequestContext.restore(previous);
+        }
+    }
+
+    /**
+     * Builds the response entity using the request context of the calling thread, caches, records and flow logs it
+     * @param request  the parsed client request
+     * @param response the wrapped response
+     * @return the response entity, or null if the call has already ended
+     */
+    ResponseEntity<RES_WRAPPER> endCall(REQ request, RES_WRAPPER response) {
+        if (RequestContext.current().getCallTrace().isEnded()) {
+            return null;
+        }
+        ResponseEntity<RES_WRAPPER> entity = responseEntity(response);
+        if (_responseCache != null && entity.getStatusCode().is2xxSuccessful()) {
+            cacheResponse(request, entity);
+        }
+        traceEnd(entity.getStatusCode(), response);
+        return entity;
+    }
+
+    /**
+     * @param response the wrapped response
+     * @return the response entity, with the headers and status of the request context of the calling thread
+     */
+    ResponseEntity<RES_WRAPPER> responseEntity(RES_WRAPPER response) {
+        RequestContext context = RequestContext.current();
+        return new ResponseEntity<>(response, context.responseHeaders(), context.getResponseStatus());
+    }
+
+    /**
+     * Records and flow logs the end of the call of the calling thread, and releases its concurrency limit,
+     * unless the call has already ended
+     * @param status   the response status
+     * @param response the response body to log
+     */
+    void traceEnd(HttpStatus status, Object response) {
+        CallTrace trace = RequestContext.current().getCallTrace();
+        if (!trace.end()) {
+            return;
+        }
+        long latencyNanos = System.nanoTime() - trace.getStartNanos();
+        ConcurrencyLimiter concurrencyLimiter = trace.takeConcurrencyLimiter();
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(latencyNanos, status);
+        }
+        _metrics.recordCall(status, latencyNanos);
+        if (_flowLogger != null) {
+            _flowLogger.exit(trace.getFlowLogCall(), status, response);
+        }
+    }
+
+    /**
+     * Binds a new request context to the calling thread and logs the request.
+     * The caller is responsible for unbinding it once done with the call.
+     * @param request        the parsed client request, null if it could not be parsed
+     * @param servletRequest the servlet request of the call
+     */
+    private void initCall(REQ request, HttpServletRequest servletRequest) {
+        long startNanos = System.nanoTime();
+        CallTrace trace = new CallTrace(startNanos, _flowLogger == null ? null : _flowLogger.enter(request));
+        new RequestContext(servletRequest, trace).attach();
+    }
+
+    /**
+     * Sets the deadline of the call of the calling thread, the earlier of the endpoint and the client deadlines
+     * @param servletRequest the servlet request of the call
+     * @throws BadRequestException in case the client deadline is malformed
+     */
+    private void applyDeadline(HttpServletRequest servletRequest) throws BadRequestException {
+        RequestContext context = RequestContext.current();
+        if (_deadlineMillis != null) {
+            context.shortenDeadline(TimeUnit.MILLISECONDS.toNanos(_deadlineMillis));
+        }
+        String value = _deadlineHeader == null ? null : servletRequest.getHeader(_deadlineHeader);
+        if (value != null) {
+            long clientMillis;
+            try {
+                clientMillis = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                clientMillis = -1;
             }
-            else {
-                validateObject(strategy, value);
+            if (clientMillis < 0) {
+                throw new BadRequestException(_deadlineHeader + " header must be a non-negative amount of milliseconds");
             }
-        } catch (IllegalAccessException ignored) {}
+            context.shortenDeadline(TimeUnit.MILLISECONDS.toNanos(clientMillis));
+        }
     }
 
-    private List<Field> listClassFields(Class<?> startClass) {
-        List<Field> result = new ArrayList<>();
-        Class<?> currentClass = startClass;
-        while (currentClass != null && !currentClass.equals(Object.class)) {
-            Field[] currentClassFields = currentClass.getDeclaredFields();
-            for (Field field : currentClassFields) {
-                if (!Modifier.isStatic(field.getModifiers())) {
-                    result.add(field);
-                }
+    /**
+     * @param context the request context of an asynchronously executed call
+     * @return the time to wait for the execution, the earlier of the async timeout of the endpoint
+     * and the deadline of the call, or null to use the server default
+     */
+    private Long asyncTimeout(RequestContext context) {
+        Long timeout = defaultAsyncTimeoutProvider();
+        Long remaining = context.getRemainingMillis();
+        if (remaining == null) {
+            return timeout;
+        }
+        remaining = Math.max(1, remaining);
+        return timeout == null ? remaining : Math.min(timeout, remaining);
+    }
+
+    /**
+     * Writes the cached response of the given request directly to the servlet response, if exists
+     * @param request the parsed and validated client request
+     * @return whether a cached response was served
+     * @throws IOException in case writing the response has failed
+     */
+    private boolean serveCachedResponse(REQ request) throws IOException {
+        if (_responseCache == null || !prefersJson(RequestContext.current().getServletRequest())) {
+            return false;
+        }
+        ResponseCache.CachedResponse cached = _responseCache.get(request);
+        if (cached == null) {
+            return false;
+        }
+        HttpServletResponse servletResponse = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getResponse();
+        servletResponse.setStatus(cached.getStatus().value());
+        cached.getHeaders().forEach((name, values) -> values.forEach(value -> servletResponse.addHeader(name, value)));
+        servletResponse.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        servletResponse.setContentLength(cached.getBody().length);
+        servletResponse.getOutputStream().write(cached.getBody());
+        traceEnd(cached.getStatus(), _flowLogger == null ? null : new RawValue(new String(cached.getBody(), StandardCharsets.UTF_8)));
+        return true;
+    }
+
+    /**
+     * Joins the execution of an equal request in progress, or starts a new execution
+     * using {@link #invokeAsync(Object)} shared by equal requests until it completes.
+     * The deadline of the caller is checked before joining, and the shared execution is bound by the
+     * deadline of the endpoint only, so that no client fails the others with its own deadline.
+     * @param request the parsed and validated client request
+     * @return a stage completing with the produced endpoint response
+     * @throws APIException in case execution has failed, or the call has already expired
+     */
+    private CompletionStage<RES> invokeCoalesced(REQ request) throws APIException {
+        RequestContext context = RequestContext.current();
+        context.checkDeadline();
+        SingleFlight.Flight<SharedResponse<RES>> flight = _singleFlight.join(request);
+        if (!flight.isLeader()) {
+            _metrics.recordCoalesced();
+            return flight.getResult().thenApply(shared -> shared.applyTo(context));
+        }
+        RequestContext flightContext = new RequestContext(context.getServletRequest(), context.getCallTrace());
+        if (_deadlineMillis != null) {
+            flightContext.shortenDeadline(TimeUnit.MILLISECONDS.toNanos(_deadlineMillis));
+        }
+        RequestContext previous = flightContext.attach();
+        CompletionStage<RES> stage;
+        try {
+            stage = invokeAsync(request);
+        } catch (Throwable t) {
+            flight.complete(null, t);
+            throw t;
+        } finally {
+            RequestContext.restore(previous);
+        }
+        stage.whenComplete((response, t) ->
+                flight.complete(t == null ? new SharedResponse<>(response, flightContext) : null, t));
+        return flight.getResult().thenApply(shared -> shared.applyTo(context));
+    }
+
+    /**
+     * Blocks until the coalesced execution of the request completes
+     * @param request the parsed and validated client request
+     * @return the produced endpoint response
+     * @throws Throwable the failure of the execution
+     */
+    private RES awaitCoalesced(REQ request) throws Throwable {
+        try {
+            return invokeCoalesced(request).toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for response", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Writes the response entity directly to the servlet response, in case the client prefers JSON
+     * @param entity the response entity, or null if already written
+     * @return null if the entity was written, otherwise the entity, to be written by the message converters
+     * @throws HttpMessageNotWritableException in case the response cannot be serialized
+     */
+    private ResponseEntity<RES_WRAPPER> write(ResponseEntity<RES_WRAPPER> entity) {
+        if (!_directJson ||
+                entity == null ||
+                entity.getBody() == null ||
+                entity.getHeaders().containsKey(HttpHeaders.CONTENT_TYPE)) {
+            return entity;
+        }
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null || attributes.getResponse() == null || !prefersJson(attributes.getRequest())) {
+            return entity;
+        }
+        HttpServletResponse servletResponse = attributes.getResponse();
+        servletResponse.setStatus(entity.getStatusCodeValue());
+        entity.getHeaders().forEach((name, values) -> values.forEach(value -> servletResponse.addHeader(name, value)));
+        servletResponse.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        try {
+            JsonGenerator generator = _objectMapper.getFactory()
+                    .createGenerator(servletResponse.getOutputStream(), JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writerFor(entity.getBody()).writeValue(generator, entity.getBody());
+            generator.close();
+        } catch (JsonProcessingException e) {
+            if (!servletResponse.isCommitted()) {
+                servletResponse.resetBuffer();
             }
-            currentClass = currentClass.getSuperclass();
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            // usually the client has disconnected
+            _metrics.recordFailure(e);
+            LOG.debug("writing response of " + getClass().getSimpleName() + " was interrupted: " + e);
+        }
+        return null;
+    }
+
+    /**
+     * @param response the wrapped response
+     * @return the writer prebuilt for the response wrapper type, whose serializer is resolved once, if the
+     * response is exactly of that type, otherwise a writer resolving the serializer of the response
+     */
+    private ObjectWriter writerFor(Object response) {
+        return response != null && response.getClass() == _responseWrapperClass ?
+                _responseWrapperWriter :
+                _responseWriter;
+    }
+
+    private void cacheResponse(REQ request, ResponseEntity<RES_WRAPPER> entity) {
+        byte[] body;
+        try {
+            body = writerFor(entity.getBody()).writeValueAsBytes(entity.getBody());
+        } catch (JsonProcessingException e) {
+            return;
+        }
+        MultiValueMap<String, String> headers = new LinkedMultiValueMap<>(entity.getHeaders());
+        _responseCache.put(request, entity.getStatusCode(), CollectionUtils.unmodifiableMultiValueMap(headers), body);
+    }
+
+    @PostConstruct
+    private void init() {
+        _validator = RequestValidator.of(_objectMapper.getPropertyNamingStrategy());
+        _bulkhead = defaultBulkheadProvider();
+        if (_enableFlowLogging) {
+            _flowLogger = new FlowLogger(_apiPath, _objectMapper, defaultFlowLogSamplingRateProvider());
+        }
+        _responseCache = defaultResponseCacheProvider();
+        if (_responseCache != null) {
+            if (HttpMethodContentClass.classify(_httpMethod) != HttpMethodContentClass.QUERY_STRING) {
+                throw new IllegalStateException("response caching of " + _apiPath + " is not supported, " +
+                        "only query string endpoints may be cached");
+            }
+            _responseCache.attach(_objectMapper, defaultRequestKeyHeadersProvider());
+        }
+        _compression = defaultCompressionProvider();
+        if (_compression != null) {
+            _compression.attach(_metrics);
+        }
+        _rateLimiter = defaultRateLimiterProvider();
+        _concurrencyLimiter = defaultConcurrencyLimiterProvider();
+        _deadlineMillis = defaultDeadlineProvider();
+        _deadlineHeader = defaultDeadlineHeaderProvider();
+        if (defaultRequestCoalescingProvider()) {
+            _singleFlight = new SingleFlight<>(_objectMapper, defaultRequestKeyHeadersProvider());
+        }
+        _directJson = defaultDirectJsonProvider() && producesJson(defaultProducesRequestConditionProvider());
+        _responseWriter = _objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        _responseWrapperWriter = _responseWriter;
+        JavaType[] typeParameters = _objectMapper
+                .constructType(ClassUtils.getUserClass(this))
+                .findTypeParameters(BasicEndpoint.class);
+        if (typeParameters.length == 3 && typeParameters[2].isConcrete() && !typeParameters[2].isJavaLangObject()) {
+            _responseWrapperClass = typeParameters[2].getRawClass();
+            _responseWrapperWriter = _responseWriter.forType(typeParameters[2]);
         }
-        return result;
     }
 
     /**
@@ -247,25 +988,157 @@ abstract public class BasicEndpoint<REQ, RES, RES_WRAPPER> {
     // Static
 
     /**
-     * Returns the value of the given request header name
+     * Returns the value of the given request header name, of the call executed by the calling thread
      * @param key name of the header to read
      * @return the value of the header, null if not found
      */
     protected static String requestHeader(String key) {
-        return SERVLET_REQUEST_THREAD_LOCAL.get().getHeader(key);
+        return requestContext().getRequestHeader(key);
     }
 
     /**
-     * Writes an HTTP header to the response
+     * Writes an HTTP header to the response of the call executed by the calling thread
      * @param key   key of the header
      * @param value value of the header
      */
     protected static void responseHeader(String key, String value) {
-        RESPONSE_HEADERS_THREAD_LOCAL.get().add(key, value);
+        requestContext().addResponseHeader(key, value);
     }
 
     protected static void responseStatusCode(HttpStatus status) {
-        RESPONSE_STATUS_THREAD_LOCAL.set(status);
+        requestContext().setResponseStatus(status);
+    }
+
+    /**
+     * @return the context of the call executed by the calling thread
+     * @throws IllegalStateException in case the calling thread is not executing a call
+     */
+    private static RequestContext requestContext() {
+        RequestContext context = RequestContext.current();
+        if (context == null) {
+            throw new IllegalStateException("no request context is bound to the calling thread, " +
+                    "use RequestContext.wrap to execute tasks on other threads");
+        }
+        return context;
+    }
+
+    /**
+     * Cached responses are serialized as JSON, and so may only be served to requests preferring JSON
+     * over any other format
+     * @param servletRequest the servlet request of the call
+     * @return whether the most preferred media type accepted by the request includes JSON
+     */
+    private static boolean prefersJson(HttpServletRequest servletRequest) {
+        String accept = servletRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isEmpty() || accept.equals(MediaType.ALL_VALUE)) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        return mediaTypes.isEmpty() || mediaTypes.get(0).includes(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * @param produces the produces condition of an endpoint, may be null
+     * @return whether the endpoint may respond with JSON
+     */
+    private static boolean producesJson(ProducesRequestCondition produces) {
+        if (produces == null || produces.isEmpty()) {
+            return true;
+        }
+        for (MediaType mediaType : produces.getProducibleMediaTypes()) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the servlet request of the calling thread, marked to be compressed if the endpoint compresses responses
+     */
+    private HttpServletRequest compressedServletRequest() {
+        HttpServletRequest servletRequest = currentServletRequest();
+        if (_compression != null) {
+            _compression.applyTo(servletRequest);
+        }
+        return servletRequest;
+    }
+
+    private static HttpServletRequest currentServletRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+    }
+
+    /**
+     * @param t a failure of an asynchronous execution
+     * @return the original failure, without the wrapping exceptions added by futures
+     */
+    static Throwable unwrap(Throwable t) {
+        Throwable result = t;
+        while ((result instanceof CompletionException || result instanceof ExecutionException) &&
+                result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+
+    // Inner
+
+    /**
+     * An unexpected failure, with no stack trace, as it is created once
+     */
+    private static class InternalServerError extends RuntimeException {
+
+        // Constructors
+
+        private InternalServerError() {
+            super("internal server error occurred", null, false, false);
+        }
+
+    }
+
+    /**
+     * The outcome of an execution shared by coalesced requests, including the response
+     * headers and status code set during the execution
+     *
+     * @param <RES> the type of the endpoint response entity
+     */
+    private static class SharedResponse<RES> {
+
+        // Fields
+
+        private final RES _response;
+
+        private final MultiValueMap<String, String> _responseHeaders;
+
+        private final HttpStatus _responseStatus;
+
+        // Constructors
+
+        private SharedResponse(RES response, RequestContext executingContext) {
+            _response = response;
+            _responseHeaders = executingContext.getResponseHeaders();
+            _responseStatus = executingContext.getResponseStatus();
+        }
+
+        // Public
+
+        /**
+         * Applies the headers and status code of the execution to the given request context
+         * @param context the context of a request sharing the execution
+         * @return the shared response
+         */
+        private RES applyTo(RequestContext context) {
+            _responseHeaders.forEach((name, values) -> values.forEach(value -> context.addResponseHeader(name, value)));
+            context.setResponseStatus(_responseStatus);
+            return _response;
+        }
+
     }
 
 }
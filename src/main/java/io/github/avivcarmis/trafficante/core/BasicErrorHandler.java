@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -23,6 +24,8 @@ abstract public class BasicErrorHandler<RES_WRAPPER> extends AbstractErrorContro
 
     private final ConcurrentHashMap<HttpStatus, RES_WRAPPER> _responseCache;
 
+    private Compression _compression;
+
     // Constructors
 
     public BasicErrorHandler() {
@@ -36,6 +39,9 @@ abstract public class BasicErrorHandler<RES_WRAPPER> extends AbstractErrorContro
     @RequestMapping(value = ERROR_PATH)
     public ResponseEntity<RES_WRAPPER> handleError(HttpServletRequest request) {
         HttpStatus status = getStatus(request);
+        if (_compression != null) {
+            _compression.applyTo(request);
+        }
         return new ResponseEntity<>(getResponse(status), status);
     }
 
@@ -44,15 +50,37 @@ abstract public class BasicErrorHandler<RES_WRAPPER> extends AbstractErrorContro
         return ERROR_PATH;
     }
 
+    /**
+     * To be overridden in case error responses should be compressed for clients accepting it.
+     * As error responses are fixed per status, each is compressed once and then served from
+     * the cache of the compression.
+     * @return a compression dedicated to this handler, or null to disable compression
+     */
+    public Compression defaultCompressionProvider() {
+        return null;
+    }
+
     // Private
 
-    private RES_WRAPPER getResponse(HttpStatus status) {
+    /**
+     * @param status the status of the failure
+     * @return the wrapped response of a failure with the given status
+     */
+    RES_WRAPPER getResponse(HttpStatus status) {
         return _responseCache.computeIfAbsent(status, s -> {
             String description = status.name().toLowerCase().replace("_", " ");
             return wrapFailure(new RuntimeException(description));
         });
     }
 
+    @PostConstruct
+    private void init() {
+        _compression = defaultCompressionProvider();
+        if (_compression != null) {
+            _compression.attach(null);
+        }
+    }
+
     abstract protected RES_WRAPPER wrapFailure(Throwable t);
 
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * A streaming endpoint for the API server.
+ * Extend this class to create a handler which produces a large amount of response elements,
+ * for example an export of many rows. Elements are pulled from the stream returned by
+ * {@link #handleStream(Object)} and written to the client one at a time, so that the complete
+ * response is never held in memory, and the first bytes are sent before the last element is produced.
+ *
+ * The request is parsed, validated and logged exactly like in {@link BasicEndpoint}.
+ * By default, elements are written as a JSON array in place of the response inside the wrapper
+ * returned by {@link #wrapResponse(Object)}. Alternatively, elements may be written as newline
+ * delimited JSON, see {@link #defaultStreamFormatProvider()}. Failures occurring before the stream
+ * is returned are wrapped using {@link #wrapFailure(Throwable)} as usual.
+ *
+ * Since writing blocks while the client is not reading, elements are never produced faster than
+ * the client consumes them. Once all elements are written, or the client disconnects, the stream is closed.
+ * A failure while streaming cannot change the already sent status, so the response is truncated instead.
+ *
+ * Streaming endpoints are executed on the server threads, and their responses are neither cached, coalesced nor compressed.
+ * They may not be called within a batch, where such calls are answered with {@link HttpStatus#BAD_REQUEST}.
+ *
+ * @param <REQ>         the type of the endpoint request entity
+ * @param <RES>         the type of the endpoint response elements
+ * @param <RES_WRAPPER> supplies a standard wrapping for the endpoint response,
+ *                     to allow unified API across the entire server
+ */
+abstract public class BasicStreamingEndpoint<REQ, RES, RES_WRAPPER> extends BasicEndpoint<REQ, ResponseStream<RES>, RES_WRAPPER> {
+
+    // Constants
+
+    private static final Log LOG = LogFactory.getLog(BasicStreamingEndpoint.class);
+
+    private static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+    private static final ConstantAPIException BATCHED_CALL =
+            new ConstantAPIException("streaming endpoints may not be called within a batch", HttpStatus.BAD_REQUEST);
+
+    // Fields
+
+    @Autowired
+    private ObjectMapper _objectMapper;
+
+    // Constructors
+
+    public BasicStreamingEndpoint(RequestMethod httpMethod, boolean enableFlowLogging) {
+        super(httpMethod, enableFlowLogging);
+    }
+
+    // Public
+
+    /**
+     * To be overridden in case elements should be written as newline delimited JSON.
+     * @return the format of the response
+     */
+    public StreamFormat defaultStreamFormatProvider() {
+        return StreamFormat.JSON_ARRAY;
+    }
+
+    /**
+     * To be overridden in case written elements should be sent to the client more or less often.
+     * @return the amount of elements to write between flushes of the response
+     */
+    public int defaultStreamFlushIntervalProvider() {
+        return DEFAULT_FLUSH_INTERVAL;
+    }
+
+    /**
+     * Streamed responses are never cached
+     */
+    @Override
+    public final ResponseCache defaultResponseCacheProvider() {
+        return null;
+    }
+
+    /**
+     * Streamed responses are never compressed, as compression requires the complete response
+     */
+    @Override
+    public final Compression defaultCompressionProvider() {
+        return null;
+    }
+
+    /**
+     * Streaming endpoints are executed on the server threads
+     */
+    @Override
+    public final Bulkhead defaultBulkheadProvider() {
+        return null;
+    }
+
+    /**
+     * Streamed responses may not be shared between requests
+     */
+    @Override
+    public final boolean defaultRequestCoalescingProvider() {
+        return false;
+    }
+
+    // Private
+
+    /**
+     * Opens the stream using {@link #handleStream(Object)}, to be written once the call ends
+     */
+    @Override
+    protected final ResponseStream<RES> handle(REQ request) throws APIException {
+        closePendingStream();
+        Stream<RES> elements = handleStream(request);
+        int flushInterval = Math.max(1, defaultStreamFlushIntervalProvider());
+        ResponseStream<RES> stream = new ResponseStream<>(elements.iterator(), elements, flushInterval);
+        RequestContext.current().getCallTrace().setPendingStream(stream);
+        return stream;
+    }
+
+    /**
+     * Fails calls within a batch before they are bound, since a batch response is neither streamed
+     * nor guaranteed to be written, and so could leave the stream open
+     */
+    @Override
+    CompletionStage<ResponseEntity<?>> doBatchedCall(Callable<REQ> binder,
+                                                     HttpServletRequest servletRequest,
+                                                     ScheduledExecutorService timer) {
+        return super.doBatchedCall(() -> { throw BATCHED_CALL; }, servletRequest, timer);
+    }
+
+    @Override
+    RES_WRAPPER wrapCallFailure(Throwable t) {
+        closePendingStream();
+        return super.wrapCallFailure(t);
+    }
+
+    /**
+     * Writes the stream directly to the servlet response, and records and flow logs the call once done.
+     * Streams of calls executed outside of a servlet request cannot be written, and are closed.
+     */
+    @Override
+    ResponseEntity<RES_WRAPPER> endCall(REQ request, RES_WRAPPER response) {
+        ResponseStream<?> stream = RequestContext.current().getCallTrace().takePendingStream();
+        if (stream == null) {
+            return super.endCall(request, response);
+        }
+        ResponseEntity<RES_WRAPPER> entity = responseEntity(response);
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            stream.close();
+            traceEnd(entity.getStatusCode(), "<unwritten stream>");
+            return null;
+        }
+        try {
+            write(attributes.getResponse(), entity, stream);
+        } catch (IOException e) {
+            // usually the client has disconnected
+            getMetrics().recordFailure(e);
+            LOG.debug("streaming response of " + getClass().getSimpleName() + " was interrupted after " +
+                    stream.getCount() + " elements: " + e);
+        } catch (Throwable t) {
+            getMetrics().recordFailure(t);
+            LOG.warn("streaming response of " + getClass().getSimpleName() + " has failed after " +
+                    stream.getCount() + " elements", t);
+        } finally {
+            stream.close();
+        }
+        traceEnd(entity.getStatusCode(), "<streamed " + stream.getCount() + " elements>");
+        return null;
+    }
+
+    private void write(HttpServletResponse servletResponse,
+                       ResponseEntity<RES_WRAPPER> entity,
+                       ResponseStream<?> stream) throws IOException {
+        StreamFormat format = defaultStreamFormatProvider();
+        servletResponse.setStatus(entity.getStatusCodeValue());
+        entity.getHeaders().forEach((name, values) -> values.forEach(value -> servletResponse.addHeader(name, value)));
+        servletResponse.setContentType(format.getContentType());
+        ObjectWriter writer = _objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = _objectMapper.getFactory()
+                .createGenerator(servletResponse.getOutputStream(), JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == StreamFormat.NDJSON) {
+            generator.setRootValueSeparator(null);
+            stream.forEach(generator, element -> {
+                writer.writeValue(generator, element);
+                generator.writeRaw('\n');
+            });
+        }
+        else {
+            writer.writeValue(generator, entity.getBody());
+        }
+        generator.close();
+    }
+
+    private static void closePendingStream() {
+        ResponseStream<?> stream = RequestContext.current().getCallTrace().takePendingStream();
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * The streaming execution of the endpoint.
+     * Note that request headers, response headers and the response status code may only
+     * be accessed before this method returns, and not while the stream is consumed.
+     * @param request the parsed client request
+     * @return a stream of the response elements, closed once consumed
+     * @throws APIException in case execution has failed
+     */
+    abstract protected Stream<RES> handleStream(REQ request) throws APIException;
+
+}
@@ -0,0 +1,247 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.avivcarmis.trafficante.adapters.spring.EndpointDescriptor;
+import io.github.avivcarmis.trafficante.adapters.spring.EndpointRegistry;
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Executes many endpoint calls within a single http request.
+ * Accepts a list of {@link BatchItem}s on the path of the `trafficante.batch.path` property
+ * (`/batch` by default), executes them in parallel and responds with a {@link BatchItemResponse}
+ * per item, in order, when `trafficante.batch.enabled` is true. Startup fails if an endpoint is mapped
+ * to the same path.
+ *
+ * Each call is bound, validated, executed and wrapped by its endpoint exactly like a direct call,
+ * but without being dispatched through the servlet layer. Request headers of the batch request
+ * apply to all of its calls, and servlet filters apply to the batch request only.
+ *
+ * Calls are executed by a bulkhead of `trafficante.batch.concurrency` threads (32 by default),
+ * queueing up to `trafficante.batch.queue-capacity` calls (1024 by default). Calls rejected by
+ * the bulkhead are answered with {@link HttpStatus#SERVICE_UNAVAILABLE}. A batch request may
+ * contain up to `trafficante.batch.max-items` calls (64 by default).
+ *
+ * Each call times out after the async timeout of its endpoint, or its deadline, and is then answered with
+ * {@link HttpStatus#SERVICE_UNAVAILABLE} or {@link HttpStatus#GATEWAY_TIMEOUT} respectively. The batch request
+ * itself times out after `trafficante.batch.timeout` milliseconds, or the async request timeout of the server
+ * by default, and is then answered with the calls completed so far, and {@link HttpStatus#SERVICE_UNAVAILABLE}
+ * for the rest.
+ */
+@RestController
+@ConditionalOnProperty(name = "trafficante.batch.enabled")
+public class BatchController implements SmartInitializingSingleton, DisposableBean {
+
+    // Constants
+
+    private static final TypeReference<List<BatchItem>> ITEMS_TYPE = new TypeReference<List<BatchItem>>() {};
+
+    private static final String BULKHEAD_NAME = "trafficante-batch";
+
+    // Fields
+
+    private final ApplicationContext _applicationContext;
+
+    private final ObjectMapper _objectMapper;
+
+    private final EndpointRegistry _endpointRegistry;
+
+    private final Bulkhead _bulkhead;
+
+    private final ScheduledThreadPoolExecutor _timer;
+
+    private final int _maxItems;
+
+    private final String _path;
+
+    private final Long _timeout;
+
+    private BasicErrorHandler<?> _errorHandler;
+
+    // Constructors
+
+    @Autowired
+    public BatchController(ApplicationContext applicationContext,
+                           ObjectMapper objectMapper,
+                           EndpointRegistry endpointRegistry,
+                           BulkheadRegistry bulkheadRegistry,
+                           @Value("${trafficante.batch.concurrency:32}") int concurrency,
+                           @Value("${trafficante.batch.queue-capacity:1024}") int queueCapacity,
+                           @Value("${trafficante.batch.max-items:64}") int maxItems,
+                           @Value("${trafficante.batch.path:/batch}") String path,
+                           @Value("${trafficante.batch.timeout:#{null}}") Long timeout) {
+        _applicationContext = applicationContext;
+        _objectMapper = objectMapper;
+        _endpointRegistry = endpointRegistry;
+        _bulkhead = bulkheadRegistry.named(BULKHEAD_NAME, concurrency, queueCapacity);
+        _timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, BULKHEAD_NAME + "-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _timer.setRemoveOnCancelPolicy(true);
+        _maxItems = maxItems;
+        _path = path;
+        _timeout = timeout;
+    }
+
+    // Public
+
+    @SuppressWarnings("unused")
+    @RequestMapping(value = "${trafficante.batch.path:/batch}", method = RequestMethod.POST)
+    public DeferredResult<List<BatchItemResponse>> doBatchCall(HttpServletRequest servletRequest) throws APIException {
+        List<BatchItem> items = readItems(servletRequest);
+        List<CompletableFuture<BatchItemResponse>> responses = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            responses.add(execute(item, servletRequest));
+        }
+        DeferredResult<List<BatchItemResponse>> result = new DeferredResult<>(_timeout);
+        result.onTimeout(() -> {
+            List<BatchItemResponse> partial = new ArrayList<>(responses.size());
+            for (CompletableFuture<BatchItemResponse> response : responses) {
+                partial.add(response.isDone() ? response.join() : failure(HttpStatus.SERVICE_UNAVAILABLE));
+            }
+            result.setResult(partial);
+        });
+        CompletableFuture
+                .allOf(responses.toArray(new CompletableFuture[responses.size()]))
+                .whenComplete((ignored, t) -> {
+                    List<BatchItemResponse> completed = new ArrayList<>(responses.size());
+                    for (CompletableFuture<BatchItemResponse> response : responses) {
+                        completed.add(response.join());
+                    }
+                    result.setResult(completed);
+                });
+        return result;
+    }
+
+    @SuppressWarnings("unused")
+    @ExceptionHandler(APIException.class)
+    public ResponseEntity<Object> errorHandler(APIException e) {
+        return new ResponseEntity<>(failureResponse(e.getStatusCode()), e.getStatusCode());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (_endpointRegistry.containsPath(_path)) {
+            throw new IllegalStateException("batch path " + _path + " collides with an endpoint, " +
+                    "set trafficante.batch.path to another path");
+        }
+        Collection<BasicErrorHandler> errorHandlers = _applicationContext.getBeansOfType(BasicErrorHandler.class).values();
+        _errorHandler = errorHandlers.isEmpty() ? null : errorHandlers.iterator().next();
+    }
+
+    @Override
+    public void destroy() {
+        _timer.shutdownNow();
+    }
+
+    // Private
+
+    private List<BatchItem> readItems(HttpServletRequest servletRequest) throws BadRequestException {
+        List<BatchItem> items;
+        try {
+            items = _objectMapper.readValue(servletRequest.getInputStream(), ITEMS_TYPE);
+        } catch (IOException e) {
+            throw new BadRequestException("batch request must be a list of calls");
+        }
+        if (items == null) {
+            throw new BadRequestException("batch request must be a list of calls");
+        }
+        if (items.size() > _maxItems) {
+            throw new BadRequestException("batch request may contain up to " + _maxItems + " calls");
+        }
+        return items;
+    }
+
+    private CompletableFuture<BatchItemResponse> execute(BatchItem item, HttpServletRequest servletRequest) {
+        EndpointDescriptor target = item == null || item.getMethod() == null || item.getPath() == null ?
+                null :
+                _endpointRegistry.get(item.getMethod(), item.getPath());
+        if (target == null) {
+            return CompletableFuture.completedFuture(failure(HttpStatus.NOT_FOUND));
+        }
+        Callable<Object> binder = () -> bind(target, item);
+        CompletableFuture<ResponseEntity<?>> response;
+        try {
+            response = _bulkhead
+                    .submit(() -> target.getEndpoint().doBatchedCall(binder, servletRequest, _timer))
+                    .thenCompose(stage -> stage);
+        } catch (APIException rejection) {
+            response = target.getEndpoint()
+                    .doBatchedCall(() -> { throw rejection; }, servletRequest, _timer)
+                    .toCompletableFuture();
+        }
+        return response.handle((entity, t) -> t != null ?
+                failure(HttpStatus.INTERNAL_SERVER_ERROR) :
+                new BatchItemResponse(entity.getStatusCodeValue(), entity.getHeaders(), entity.getBody()));
+    }
+
+    private Object bind(EndpointDescriptor target, BatchItem item) throws APIException {
+        if (target.getContentClass() == HttpMethodContentClass.QUERY_STRING) {
+            return target.bind(parameters(item.getParams()));
+        }
+        if (item.getBody() == null) {
+            throw new BadRequestException("request body is missing");
+        }
+        return target.read(item.getBody());
+    }
+
+    private BatchItemResponse failure(HttpStatus status) {
+        return new BatchItemResponse(status.value(), null, failureResponse(status));
+    }
+
+    private Object failureResponse(HttpStatus status) {
+        return _errorHandler == null ? null : _errorHandler.getResponse(status);
+    }
+
+    // Static
+
+    private static Map<String, String[]> parameters(Map<String, Object> params) {
+        Map<String, String[]> result = new HashMap<>();
+        if (params == null) {
+            return result;
+        }
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof List) {
+                List<?> values = (List<?>) value;
+                String[] strings = new String[values.size()];
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] = String.valueOf(values.get(i));
+                }
+                result.put(entry.getKey(), strings);
+            }
+            else if (value != null) {
+                result.put(entry.getKey(), new String[]{String.valueOf(value)});
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.Map;
+
+/**
+ * A single call within a batch request.
+ * Addresses an endpoint by its http method and path, and supplies its request either
+ * as query string parameters or as a payload body, according to the http method.
+ */
+public class BatchItem {
+
+    // Fields
+
+    private RequestMethod method;
+
+    private String path;
+
+    private Map<String, Object> params;
+
+    private JsonNode body;
+
+    // Constructors
+
+    public BatchItem() {
+    }
+
+    public BatchItem(RequestMethod method, String path, Map<String, Object> params, JsonNode body) {
+        this.method = method;
+        this.path = path;
+        this.params = params;
+        this.body = body;
+    }
+
+    // Public
+
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the query string parameters of the call, each either a single value or a list of values
+     */
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public JsonNode getBody() {
+        return body;
+    }
+
+}
@@ -0,0 +1,47 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response to a single call within a batch request
+ */
+public class BatchItemResponse {
+
+    // Fields
+
+    private final int status;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private final Map<String, List<String>> headers;
+
+    private final Object body;
+
+    // Constructors
+
+    BatchItemResponse(int status, Map<String, List<String>> headers, Object body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    // Public
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the wrapped response of the call
+     */
+    public Object getBody() {
+        return body;
+    }
+
+}
@@ -0,0 +1,186 @@
+package io.github.avivcarmis.trafficante.core;
+
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An isolated executor for one or more endpoints.
+ * Limits the amount of requests concurrently executed by the endpoints assigned to it,
+ * and the amount of requests waiting for execution. Requests exceeding both limits are
+ * rejected immediately, without occupying a server thread.
+ *
+ * Bulkheads are created by name through the {@link BulkheadRegistry} of the application context,
+ * so that a group of endpoints may share a bulkhead by providing the same name from
+ * {@link BasicEndpoint#defaultBulkheadProvider()}.
+ */
+public class Bulkhead {
+
+    // Constants
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    // Fields
+
+    private final String _name;
+
+    private final int _maxConcurrency;
+
+    private final int _queueCapacity;
+
+    private final HttpStatus _rejectionStatus;
+
+    private final ConstantAPIException _rejection;
+
+    private final ThreadPoolExecutor _executor;
+
+    private final LongAdder _rejectedCount;
+
+    // Constructors
+
+    Bulkhead(String name, int maxConcurrency, int queueCapacity, HttpStatus rejectionStatus) {
+        _name = name;
+        _maxConcurrency = maxConcurrency;
+        _queueCapacity = queueCapacity;
+        _rejectionStatus = rejectionStatus;
+        _rejection = new ConstantAPIException(rejectionStatus.name().toLowerCase().replace("_", " "), rejectionStatus);
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ?
+                new ArrayBlockingQueue<>(queueCapacity) :
+                new SynchronousQueue<>();
+        _executor = new ThreadPoolExecutor(
+                maxConcurrency,
+                maxConcurrency,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                queue,
+                new BulkheadThreadFactory(name)
+        );
+        _executor.allowCoreThreadTimeOut(true);
+        _rejectedCount = new LongAdder();
+    }
+
+    // Public
+
+    public String getName() {
+        return _name;
+    }
+
+    public int getMaxConcurrency() {
+        return _maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return _queueCapacity;
+    }
+
+    public HttpStatus getRejectionStatus() {
+        return _rejectionStatus;
+    }
+
+    /**
+     * @return the amount of requests currently being executed
+     */
+    public int getActiveCount() {
+        return _executor.getActiveCount();
+    }
+
+    /**
+     * @return the amount of requests currently waiting for execution
+     */
+    public int getQueueDepth() {
+        return _executor.getQueue().size();
+    }
+
+    /**
+     * @return the amount of requests rejected since the bulkhead was created
+     */
+    public long getRejectedCount() {
+        return _rejectedCount.sum();
+    }
+
+    /**
+     * @return the amount of requests executed since the bulkhead was created
+     */
+    public long getCompletedCount() {
+        return _executor.getCompletedTaskCount();
+    }
+
+    // Private
+
+    /**
+     * Submits the given task for execution with the request context of the calling thread
+     * @param task the task to execute
+     * @param <T>  the type of the task result
+     * @return a future completing with the task result
+     * @throws APIException with the rejection status, in case the bulkhead is saturated
+     */
+    <T> CompletableFuture<T> submit(Callable<T> task) throws APIException {
+        RequestContext context = RequestContext.current();
+        Callable<T> contextualTask = context == null ? task : context.wrap(task);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            _executor.execute(() -> {
+                try {
+                    result.complete(contextualTask.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            _rejectedCount.increment();
+            throw _rejection;
+        }
+        return result;
+    }
+
+    /**
+     * Stops accepting requests, letting those already accepted complete
+     */
+    void shutdown() {
+        _executor.shutdown();
+    }
+
+    // Inner
+
+    /**
+     * Creates named daemon threads for a bulkhead
+     */
+    private static class BulkheadThreadFactory implements ThreadFactory {
+
+        // Fields
+
+        private final String _prefix;
+
+        private final AtomicInteger _nextId;
+
+        // Constructors
+
+        private BulkheadThreadFactory(String bulkheadName) {
+            _prefix = "bulkhead-" + bulkheadName + "-";
+            _nextId = new AtomicInteger(1);
+        }
+
+        // Public
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, _prefix + _nextId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the bulkheads of the application context by name, so that a group of endpoints may share a bulkhead
+ * by providing the same name from {@link BasicEndpoint#defaultBulkheadProvider()}.
+ *
+ * Bulkheads live as long as the application context, and their executors are shut down when it closes,
+ * so that a refreshed context creates its bulkheads anew, possibly with a different configuration.
+ */
+@Component("BulkheadRegistry")
+public class BulkheadRegistry implements DisposableBean {
+
+    // Fields
+
+    private final ConcurrentHashMap<String, Bulkhead> _bulkheads;
+
+    // Constructors
+
+    public BulkheadRegistry() {
+        _bulkheads = new ConcurrentHashMap<>();
+    }
+
+    // Public
+
+    /**
+     * Returns the bulkhead of the given name, creating it if not yet exists.
+     * Rejected requests are answered with {@link HttpStatus#SERVICE_UNAVAILABLE}.
+     * @param name           the name of the bulkhead
+     * @param maxConcurrency the maximum amount of concurrently executed requests
+     * @param queueCapacity  the maximum amount of requests waiting for execution
+     * @return the bulkhead
+     */
+    public Bulkhead named(String name, int maxConcurrency, int queueCapacity) {
+        return named(name, maxConcurrency, queueCapacity, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Returns the bulkhead of the given name, creating it if not yet exists
+     * @param name            the name of the bulkhead
+     * @param maxConcurrency  the maximum amount of concurrently executed requests
+     * @param queueCapacity   the maximum amount of requests waiting for execution
+     * @param rejectionStatus the status to respond with when the bulkhead is saturated
+     * @return the bulkhead
+     * @throws IllegalArgumentException in case a bulkhead of the given name already exists in this context
+     * with a different configuration
+     */
+    public Bulkhead named(String name, int maxConcurrency, int queueCapacity, HttpStatus rejectionStatus) {
+        if (name == null || rejectionStatus == null) {
+            throw new IllegalArgumentException("bulkhead name and rejection status cannot be null");
+        }
+        if (maxConcurrency <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("bulkhead `" + name + "` must allow positive concurrency " +
+                    "and non-negative queue capacity");
+        }
+        Bulkhead bulkhead = _bulkheads.computeIfAbsent(name,
+                n -> new Bulkhead(n, maxConcurrency, queueCapacity, rejectionStatus));
+        if (bulkhead.getMaxConcurrency() != maxConcurrency ||
+                bulkhead.getQueueCapacity() != queueCapacity ||
+                bulkhead.getRejectionStatus() != rejectionStatus) {
+            throw new IllegalArgumentException("bulkhead `" + name + "` already exists with a different configuration");
+        }
+        return bulkhead;
+    }
+
+    /**
+     * @return all the bulkheads created so far
+     */
+    public Collection<Bulkhead> getAll() {
+        return Collections.unmodifiableCollection(_bulkheads.values());
+    }
+
+    /**
+     * Shuts down the executors of all bulkheads. Requests already accepted are still executed.
+     */
+    @Override
+    public void destroy() {
+        for (Bulkhead bulkhead : _bulkheads.values()) {
+            bulkhead.shutdown();
+        }
+        _bulkheads.clear();
+    }
+
+}
@@ -0,0 +1,90 @@
+package io.github.avivcarmis.trafficante.core;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The bookkeeping the framework keeps for a single call,
+ * from the moment its request state is initialized until its response is built.
+ */
+final class CallTrace {
+
+    // Fields
+
+    private final long _startNanos;
+
+    private final FlowLogger.Call _flowLogCall;
+
+    private final AtomicBoolean _ended;
+
+    private final AtomicReference<ConcurrencyLimiter> _concurrencyLimiter;
+
+    private ResponseStream<?> _pendingStream;
+
+    // Constructors
+
+    CallTrace(long startNanos, FlowLogger.Call flowLogCall) {
+        _startNanos = startNanos;
+        _flowLogCall = flowLogCall;
+        _ended = new AtomicBoolean(false);
+        _concurrencyLimiter = new AtomicReference<>();
+    }
+
+    // Public
+
+    long getStartNanos() {
+        return _startNanos;
+    }
+
+    /**
+     * @return the flow log state of the call, or null if the endpoint does not flow log
+     */
+    FlowLogger.Call getFlowLogCall() {
+        return _flowLogCall;
+    }
+
+    /**
+     * Marks the call as ended, so that it is recorded and flow logged exactly once
+     * @return true if the call has just ended, false if it has already ended before
+     */
+    boolean end() {
+        return _ended.compareAndSet(false, true);
+    }
+
+    boolean isEnded() {
+        return _ended.get();
+    }
+
+    /**
+     * @param concurrencyLimiter the limiter which admitted the call, to be released once it ends
+     */
+    void admittedBy(ConcurrencyLimiter concurrencyLimiter) {
+        _concurrencyLimiter.set(concurrencyLimiter);
+    }
+
+    /**
+     * @param pendingStream the stream produced by the call, to be written once it ends
+     */
+    void setPendingStream(ResponseStream<?> pendingStream) {
+        _pendingStream = pendingStream;
+    }
+
+    /**
+     * @return the stream produced by the call and not yet written, or null if none.
+     * Returns the stream once, so that it is written or closed exactly once.
+     */
+    ResponseStream<?> takePendingStream() {
+        ResponseStream<?> result = _pendingStream;
+        _pendingStream = null;
+        return result;
+    }
+
+    /**
+     * @return the limiter which admitted the call, or null if not admitted by any or already released.
+     * Returns the limiter once, so that it is released exactly once.
+     */
+    ConcurrencyLimiter takeConcurrencyLimiter() {
+        return _concurrencyLimiter.getAndSet(null);
+    }
+
+}
@@ -0,0 +1,337 @@
+package io.github.avivcarmis.trafficante.core;
+
+import javax.servlet.ServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression of the responses of a single endpoint.
+ * Responses are compressed only when the client accepts the encoding, and their body is
+ * at least of a minimal size, as small bodies gain little and still cost a compression.
+ *
+ * Compressed bodies are cached by their content, so responses with identical bytes, such as
+ * cached responses and fixed failure responses, are compressed only once. The total weight
+ * of the cache, which is about the size of cached bodies in bytes, is bounded, and least
+ * recently used bodies are evicted when full.
+ *
+ * Provide an instance from {@link BasicEndpoint#defaultCompressionProvider()} to enable compression.
+ * Compression ratio and CPU time are recorded in the {@link EndpointMetrics} of the endpoint.
+ */
+public class Compression {
+
+    // Constants
+
+    public static final int DEFAULT_MIN_SIZE_BYTES = 1024;
+
+    private static final String REQUEST_ATTRIBUTE = Compression.class.getName();
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Approximated memory overhead of a cached body, in bytes
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    // Fields
+
+    private final Encoding _encoding;
+
+    private final int _level;
+
+    private final int _minSizeBytes;
+
+    private final long _cacheMaxWeight;
+
+    private final LinkedHashMap<Body, byte[]> _cache;
+
+    private final AtomicBoolean _attached;
+
+    private long _cacheWeight;
+
+    private EndpointMetrics _metrics;
+
+    // Constructors
+
+    /**
+     * @param encoding            the content encoding to compress with
+     * @param level               the compression level, between 1 (fastest) and 9 (smallest)
+     * @param minSizeBytes        the minimal size of a body to compress, in bytes
+     * @param cacheMaxWeightBytes the maximal total size of cached bodies, in bytes, or 0 to disable caching
+     */
+    public Compression(Encoding encoding, int level, int minSizeBytes, long cacheMaxWeightBytes) {
+        if (encoding == null) {
+            throw new IllegalArgumentException("compression encoding cannot be null");
+        }
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compression level must be between 1 and 9");
+        }
+        if (minSizeBytes < 0 || cacheMaxWeightBytes < 0) {
+            throw new IllegalArgumentException("compression min size and cache max weight may not be negative");
+        }
+        _encoding = encoding;
+        _level = level;
+        _minSizeBytes = minSizeBytes;
+        _cacheMaxWeight = cacheMaxWeightBytes;
+        _cache = new LinkedHashMap<>(16, 0.75f, true);
+        _attached = new AtomicBoolean(false);
+        _cacheWeight = 0;
+    }
+
+    // Public
+
+    public Encoding getEncoding() {
+        return _encoding;
+    }
+
+    public int getLevel() {
+        return _level;
+    }
+
+    public int getMinSizeBytes() {
+        return _minSizeBytes;
+    }
+
+    public long getCacheMaxWeight() {
+        return _cacheMaxWeight;
+    }
+
+    /**
+     * @return the current total weight of the cache
+     */
+    public synchronized long getCacheWeight() {
+        return _cacheWeight;
+    }
+
+    /**
+     * @param acceptEncoding the value of the `Accept-Encoding` header of a request, may be null
+     * @return whether the encoding of this compression is accepted
+     */
+    public boolean isAcceptedBy(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = !isZeroQuality(parts);
+            if (coding.equalsIgnoreCase(_encoding.getName())) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    /**
+     * Compresses the given body, or returns a cached compression of identical bytes,
+     * and records it in the metrics of the endpoint
+     * @param body the body to compress
+     * @return the compressed body
+     * @throws IOException in case compression has failed
+     */
+    public byte[] compress(byte[] body) throws IOException {
+        Body key = _cacheMaxWeight == 0 ? null : new Body(body);
+        byte[] result = key == null ? null : cached(key);
+        if (result != null) {
+            record(body.length, result.length, 0, true);
+            return result;
+        }
+        long start = cpuTimeNanos();
+        result = deflate(body);
+        record(body.length, result.length, cpuTimeNanos() - start, false);
+        if (key != null) {
+            cache(key, result);
+        }
+        return result;
+    }
+
+    // Private
+
+    /**
+     * Binds the compression to the endpoint using it
+     * @param metrics the metrics of the endpoint, or null if it has none
+     * @throws IllegalStateException in case the compression is already used by another endpoint
+     */
+    void attach(EndpointMetrics metrics) {
+        if (_attached.getAndSet(true)) {
+            throw new IllegalStateException("a compression instance may be used by a single endpoint");
+        }
+        _metrics = metrics;
+    }
+
+    /**
+     * Marks the response of the given request to be compressed by this compression
+     * @param servletRequest the servlet request of the call
+     */
+    void applyTo(ServletRequest servletRequest) {
+        servletRequest.setAttribute(REQUEST_ATTRIBUTE, this);
+    }
+
+    private byte[] deflate(byte[] body) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        if (_encoding == Encoding.GZIP) {
+            try (DeflaterOutputStream stream = new LeveledGZIPOutputStream(result, _level)) {
+                stream.write(body);
+            }
+            return result.toByteArray();
+        }
+        Deflater deflater = new Deflater(_level);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(result, deflater)) {
+            stream.write(body);
+        } finally {
+            deflater.end();
+        }
+        return result.toByteArray();
+    }
+
+    private synchronized byte[] cached(Body key) {
+        return _cache.get(key);
+    }
+
+    private synchronized void cache(Body key, byte[] compressed) {
+        long weight = ENTRY_OVERHEAD + key._bytes.length + compressed.length;
+        if (weight > _cacheMaxWeight) {
+            return;
+        }
+        byte[] previous = _cache.put(key, compressed);
+        _cacheWeight += previous == null ? weight : compressed.length - previous.length;
+        Iterator<Map.Entry<Body, byte[]>> iterator = _cache.entrySet().iterator();
+        while (_cacheWeight > _cacheMaxWeight && iterator.hasNext()) {
+            Map.Entry<Body, byte[]> eldest = iterator.next();
+            _cacheWeight -= ENTRY_OVERHEAD + eldest.getKey()._bytes.length + eldest.getValue().length;
+            iterator.remove();
+        }
+    }
+
+    private void record(long uncompressedBytes, long compressedBytes, long cpuNanos, boolean cached) {
+        if (_metrics != null) {
+            _metrics.recordCompression(uncompressedBytes, compressedBytes, cpuNanos, cached);
+        }
+    }
+
+    // Static
+
+    /**
+     * @param servletRequest a servlet request
+     * @return the compression of the response of the given request, or null if it should not be compressed
+     */
+    public static Compression forRequest(ServletRequest servletRequest) {
+        return (Compression) servletRequest.getAttribute(REQUEST_ATTRIBUTE);
+    }
+
+    private static boolean isZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the CPU time of the calling thread, or the wall clock time if not supported
+     */
+    private static long cpuTimeNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // Inner
+
+    /**
+     * A content encoding supported by {@link Compression}
+     */
+    public enum Encoding {
+
+        // Values
+
+        GZIP("gzip"),
+
+        /**
+         * The zlib format, as defined for the `deflate` content encoding
+         */
+        DEFLATE("deflate");
+
+        // Fields
+
+        private final String _name;
+
+        // Constructors
+
+        Encoding(String name) {
+            _name = name;
+        }
+
+        // Public
+
+        /**
+         * @return the name of the encoding, as used in the `Content-Encoding` header
+         */
+        public String getName() {
+            return _name;
+        }
+
+    }
+
+    /**
+     * The content of a body, as a cache key
+     */
+    private static class Body {
+
+        // Fields
+
+        private final byte[] _bytes;
+
+        private final int _hash;
+
+        // Constructors
+
+        private Body(byte[] bytes) {
+            _bytes = bytes;
+            _hash = Arrays.hashCode(bytes);
+        }
+
+        // Public
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Body && _hash == ((Body) o)._hash && Arrays.equals(_bytes, ((Body) o)._bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+
+    }
+
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        // Constructors
+
+        private LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+
+    }
+
+}
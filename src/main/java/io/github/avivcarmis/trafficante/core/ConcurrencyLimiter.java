@@ -0,0 +1,331 @@
+package io.github.avivcarmis.trafficante.core;
+
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the amount of calls concurrently in flight, for one or more endpoints, and adapts the
+ * limit to the latency observed. While latency is steady the limit grows to admit more calls,
+ * and once latency rises, e.g. since a downstream dependency slows down, the limit shrinks so
+ * that calls exceeding it are shed immediately rather than queue and slow down the rest.
+ *
+ * The limit is adapted by one of two algorithms:
+ * - {@link ConcurrencyLimiterRegistry#aimd(String, int, int, int, long, TimeUnit)}, which grows the limit additively while calls
+ *   complete within a latency threshold, and shrinks it multiplicatively once they do not, or fail with
+ *   a server error.
+ * - {@link ConcurrencyLimiterRegistry#gradient(String, int, int, int)}, which requires no threshold, and sets the limit according
+ *   to the ratio between the long term average latency and the recent latency.
+ *
+ * Shed calls are failed with {@link HttpStatus#SERVICE_UNAVAILABLE}, wrapped by the endpoint.
+ * Limiters are created by name through the {@link ConcurrencyLimiterRegistry} of the application context,
+ * so that a group of endpoints, or the entire server, may share a limiter by providing the same name from
+ * {@link BasicEndpoint#defaultConcurrencyLimiterProvider()}.
+ */
+public class ConcurrencyLimiter {
+
+    // Constants
+
+    private static final ConstantAPIException SHED = new ConstantAPIException("service unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+
+    // Fields
+
+    private final String _name;
+
+    private final Algorithm _algorithm;
+
+    private final AtomicInteger _inFlight;
+
+    private final LongAdder _shedCount;
+
+    private volatile int _limit;
+
+    // Constructors
+
+    private ConcurrencyLimiter(String name, Algorithm algorithm) {
+        _name = name;
+        _algorithm = algorithm;
+        _inFlight = new AtomicInteger();
+        _shedCount = new LongAdder();
+        _limit = algorithm._initialLimit;
+    }
+
+    // Public
+
+    public String getName() {
+        return _name;
+    }
+
+    /**
+     * @return the current amount of calls allowed in flight
+     */
+    public int getLimit() {
+        return _limit;
+    }
+
+    /**
+     * @return the amount of calls currently in flight
+     */
+    public int getInFlight() {
+        return _inFlight.get();
+    }
+
+    /**
+     * @return the amount of calls shed since the limiter was created
+     */
+    public long getShedCount() {
+        return _shedCount.sum();
+    }
+
+    // Private
+
+    /**
+     * Admits a call, to be followed by exactly one call to {@link #release(long, HttpStatus)} once it completes
+     * @throws APIException with {@link HttpStatus#SERVICE_UNAVAILABLE}, in case the limit is reached
+     */
+    void acquire() throws APIException {
+        while (true) {
+            int inFlight = _inFlight.get();
+            if (inFlight >= _limit) {
+                _shedCount.increment();
+                throw SHED;
+            }
+            if (_inFlight.compareAndSet(inFlight, inFlight + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Completes an admitted call and adapts the limit to its outcome
+     * @param latencyNanos the latency of the call
+     * @param status       the response status of the call
+     */
+    void release(long latencyNanos, HttpStatus status) {
+        int inFlight = _inFlight.getAndDecrement();
+        synchronized (_algorithm) {
+            _limit = _algorithm.update(_limit, inFlight, latencyNanos, status.is5xxServerError());
+        }
+    }
+
+    /**
+     * @param other a limiter
+     * @return whether the given limiter adapts its limit by the same algorithm and configuration as this one
+     */
+    boolean hasSameConfiguration(ConcurrencyLimiter other) {
+        return _algorithm.equals(other._algorithm);
+    }
+
+    // Static
+
+    /**
+     * Creates a limiter with the AIMD algorithm, see {@link ConcurrencyLimiterRegistry#aimd(String, int, int, int, long, TimeUnit)}
+     */
+    static ConcurrencyLimiter aimd(String name,
+                                   int initialLimit,
+                                   int minLimit,
+                                   int maxLimit,
+                                   long latencyThreshold,
+                                   TimeUnit unit) {
+        if (latencyThreshold <= 0) {
+            throw new IllegalArgumentException("concurrency limiter `" + name + "` latency threshold must be positive");
+        }
+        return create(name, new Aimd(initialLimit, minLimit, maxLimit, unit.toNanos(latencyThreshold)));
+    }
+
+    /**
+     * Creates a limiter with the gradient algorithm, see {@link ConcurrencyLimiterRegistry#gradient(String, int, int, int)}
+     */
+    static ConcurrencyLimiter gradient(String name, int initialLimit, int minLimit, int maxLimit) {
+        return create(name, new Gradient(initialLimit, minLimit, maxLimit));
+    }
+
+    private static ConcurrencyLimiter create(String name, Algorithm algorithm) {
+        if (name == null) {
+            throw new IllegalArgumentException("concurrency limiter name cannot be null");
+        }
+        if (algorithm._minLimit <= 0 ||
+                algorithm._minLimit > algorithm._initialLimit ||
+                algorithm._initialLimit > algorithm._maxLimit) {
+            throw new IllegalArgumentException("concurrency limiter `" + name + "` limits must be positive, " +
+                    "and the initial limit must be between the minimal and maximal limits");
+        }
+        return new ConcurrencyLimiter(name, algorithm);
+    }
+
+    // Inner
+
+    /**
+     * Adapts the limit on each completed call. Updates are serialized by the limiter.
+     */
+    private static abstract class Algorithm {
+
+        // Fields
+
+        final int _initialLimit;
+
+        final int _minLimit;
+
+        final int _maxLimit;
+
+        // Constructors
+
+        private Algorithm(int initialLimit, int minLimit, int maxLimit) {
+            _initialLimit = initialLimit;
+            _minLimit = minLimit;
+            _maxLimit = maxLimit;
+        }
+
+        // Public
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            Algorithm other = (Algorithm) o;
+            return _initialLimit == other._initialLimit && _minLimit == other._minLimit && _maxLimit == other._maxLimit;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * _initialLimit + _minLimit) + _maxLimit;
+        }
+
+        // Private
+
+        /**
+         * @param limit        the current limit
+         * @param inFlight     the amount of calls in flight when the call completed, including it
+         * @param latencyNanos the latency of the completed call
+         * @param failed       whether the call failed with a server error
+         * @return the new limit
+         */
+        abstract int update(int limit, int inFlight, long latencyNanos, boolean failed);
+
+        int clamp(double limit) {
+            return (int) Math.max(_minLimit, Math.min(_maxLimit, limit));
+        }
+
+    }
+
+    private static class Aimd extends Algorithm {
+
+        // Constants
+
+        private static final double BACKOFF_RATIO = 0.9;
+
+        // Fields
+
+        private final long _latencyThresholdNanos;
+
+        // Constructors
+
+        private Aimd(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+            super(initialLimit, minLimit, maxLimit);
+            _latencyThresholdNanos = latencyThresholdNanos;
+        }
+
+        // Public
+
+        @Override
+        public boolean equals(Object o) {
+            return super.equals(o) && ((Aimd) o)._latencyThresholdNanos == _latencyThresholdNanos;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * super.hashCode() + Long.hashCode(_latencyThresholdNanos);
+        }
+
+        // Private
+
+        @Override
+        int update(int limit, int inFlight, long latencyNanos, boolean failed) {
+            if (failed || latencyNanos > _latencyThresholdNanos) {
+                return clamp(limit * BACKOFF_RATIO);
+            }
+            if (inFlight * 2 >= limit) {
+                return clamp(limit + 1);
+            }
+            return limit;
+        }
+
+    }
+
+    private static class Gradient extends Algorithm {
+
+        // Constants
+
+        /**
+         * The weight of each call in the long term average latency, that is about the last 600 calls
+         */
+        private static final double LONG_TERM_SMOOTHING = 2.0 / 601;
+
+        /**
+         * The weight of each call in the recent latency, that is about the last 10 calls
+         */
+        private static final double SHORT_TERM_SMOOTHING = 2.0 / 11;
+
+        /**
+         * The weight of each update in the limit, to avoid oscillating
+         */
+        private static final double LIMIT_SMOOTHING = 0.2;
+
+        /**
+         * Recent latency up to this ratio of the long term average is considered steady
+         */
+        private static final double TOLERANCE = 1.5;
+
+        private static final double MIN_GRADIENT = 0.5;
+
+        // Fields
+
+        private double _longTermNanos;
+
+        private double _shortTermNanos;
+
+        private double _limit;
+
+        // Constructors
+
+        private Gradient(int initialLimit, int minLimit, int maxLimit) {
+            super(initialLimit, minLimit, maxLimit);
+            _limit = initialLimit;
+        }
+
+        // Private
+
+        @Override
+        int update(int limit, int inFlight, long latencyNanos, boolean failed) {
+            if (_longTermNanos == 0) {
+                _longTermNanos = latencyNanos;
+                _shortTermNanos = latencyNanos;
+                return limit;
+            }
+            _longTermNanos += (latencyNanos - _longTermNanos) * LONG_TERM_SMOOTHING;
+            _shortTermNanos += (latencyNanos - _shortTermNanos) * SHORT_TERM_SMOOTHING;
+            if (_longTermNanos / _shortTermNanos > 2) {
+                // latency has dropped significantly, converge faster to the new norm
+                _longTermNanos *= 0.95;
+            }
+            if (inFlight * 2 < _limit && !failed) {
+                // the limit is not in use, so latency tells nothing about it
+                return limit;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1, TOLERANCE * _longTermNanos / _shortTermNanos));
+            if (failed) {
+                gradient *= MIN_GRADIENT;
+            }
+            double target = _limit * gradient + Math.sqrt(_limit);
+            _limit = Math.max(_minLimit, Math.min(_maxLimit, _limit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING));
+            return clamp(_limit);
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the concurrency limiters of the application context by name, so that a group of endpoints,
+ * or the entire server, may share a limiter by providing the same name from
+ * {@link BasicEndpoint#defaultConcurrencyLimiterProvider()}.
+ *
+ * Limiters live as long as the application context, so that a refreshed context creates its limiters anew,
+ * possibly with a different configuration.
+ */
+@Component("ConcurrencyLimiterRegistry")
+public class ConcurrencyLimiterRegistry {
+
+    // Fields
+
+    private final ConcurrentHashMap<String, ConcurrencyLimiter> _limiters;
+
+    // Constructors
+
+    public ConcurrencyLimiterRegistry() {
+        _limiters = new ConcurrentHashMap<>();
+    }
+
+    // Public
+
+    /**
+     * Returns the limiter of the given name, creating it with the AIMD algorithm if not yet exists.
+     * The limit grows by one for each call completing within the latency threshold while at least half of
+     * the limit is in use, and shrinks by 10% for each call exceeding the threshold or failing with a server error.
+     * @param name             the name of the limiter
+     * @param initialLimit     the amount of calls allowed in flight before any call completes
+     * @param minLimit         the minimal amount of calls allowed in flight
+     * @param maxLimit         the maximal amount of calls allowed in flight
+     * @param latencyThreshold the latency from which calls are considered to overload the server
+     * @param unit             the unit of the latency threshold
+     * @return the limiter
+     * @throws IllegalArgumentException in case a limiter of the given name already exists in this context
+     * with a different configuration
+     */
+    public ConcurrencyLimiter aimd(String name,
+                                   int initialLimit,
+                                   int minLimit,
+                                   int maxLimit,
+                                   long latencyThreshold,
+                                   TimeUnit unit) {
+        return register(ConcurrencyLimiter.aimd(name, initialLimit, minLimit, maxLimit, latencyThreshold, unit));
+    }
+
+    /**
+     * Returns the limiter of the given name, creating it with the gradient algorithm if not yet exists.
+     * On each completed call, the limit is multiplied by the ratio between the long term average latency
+     * and the recent latency, between 0.5 and 1, plus the square root of the limit to allow growth while
+     * latency is steady. Calls failing with a server error halve the ratio. The long term average adapts
+     * slowly to changes, so that lasting changes of latency eventually become the new norm.
+     * @param name         the name of the limiter
+     * @param initialLimit the amount of calls allowed in flight before any call completes
+     * @param minLimit     the minimal amount of calls allowed in flight
+     * @param maxLimit     the maximal amount of calls allowed in flight
+     * @return the limiter
+     * @throws IllegalArgumentException in case a limiter of the given name already exists in this context
+     * with a different configuration
+     */
+    public ConcurrencyLimiter gradient(String name, int initialLimit, int minLimit, int maxLimit) {
+        return register(ConcurrencyLimiter.gradient(name, initialLimit, minLimit, maxLimit));
+    }
+
+    /**
+     * @return all the limiters created so far
+     */
+    public Collection<ConcurrencyLimiter> getAll() {
+        return Collections.unmodifiableCollection(_limiters.values());
+    }
+
+    // Private
+
+    private ConcurrencyLimiter register(ConcurrencyLimiter created) {
+        ConcurrencyLimiter limiter = _limiters.putIfAbsent(created.getName(), created);
+        if (limiter == null) {
+            return created;
+        }
+        if (!limiter.hasSameConfiguration(created)) {
+            throw new IllegalArgumentException("concurrency limiter `" + created.getName() + "` " +
+                    "already exists with a different configuration");
+        }
+        return limiter;
+    }
+
+}
@@ -0,0 +1,174 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Performance metrics of a single endpoint, recorded by the framework for every call.
+ * Counts calls by response status and failures by exception type,
+ * records call latency in a {@link LatencyHistogram}, and the ratio and CPU time of response compression.
+ */
+public class EndpointMetrics {
+
+    // Fields
+
+    private final String _apiPath;
+
+    private final ConcurrentHashMap<HttpStatus, LongAdder> _statusCounts;
+
+    private final ConcurrentHashMap<Class<?>, LongAdder> _failureCounts;
+
+    private final LatencyHistogram _latency;
+
+    private final LongAdder _coalescedCount;
+
+    private final LongAdder _compressedCount;
+
+    private final LongAdder _compressionCacheHitCount;
+
+    private final LongAdder _uncompressedBytes;
+
+    private final LongAdder _compressedBytes;
+
+    private final LongAdder _compressionCpuNanos;
+
+    // Constructors
+
+    EndpointMetrics(String apiPath) {
+        _apiPath = apiPath;
+        _statusCounts = new ConcurrentHashMap<>();
+        _failureCounts = new ConcurrentHashMap<>();
+        _latency = new LatencyHistogram();
+        _coalescedCount = new LongAdder();
+        _compressedCount = new LongAdder();
+        _compressionCacheHitCount = new LongAdder();
+        _uncompressedBytes = new LongAdder();
+        _compressedBytes = new LongAdder();
+        _compressionCpuNanos = new LongAdder();
+    }
+
+    // Public
+
+    /**
+     * @return the http method and path of the endpoint, e.g. "GET /get_user"
+     */
+    public String getApiPath() {
+        return _apiPath;
+    }
+
+    /**
+     * @return the amount of calls by response status code, ordered by status code
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> result = new TreeMap<>();
+        _statusCounts.forEach((status, count) -> result.put(status.value(), count.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return the amount of failed calls by the simple name of the exception class, ordered by name
+     */
+    public Map<String, Long> getFailureCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        _failureCounts.forEach((type, count) -> result.merge(type.getSimpleName(), count.sum(), Long::sum));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return the latency histogram of calls
+     */
+    public LatencyHistogram getLatency() {
+        return _latency;
+    }
+
+    /**
+     * @return the amount of calls which shared the execution of an equal concurrent call
+     */
+    public long getCoalescedCount() {
+        return _coalescedCount.sum();
+    }
+
+    /**
+     * @return the amount of compressed responses, including ones served from the compression cache
+     */
+    public long getCompressedCount() {
+        return _compressedCount.sum();
+    }
+
+    /**
+     * @return the amount of compressed responses served from the compression cache
+     */
+    public long getCompressionCacheHitCount() {
+        return _compressionCacheHitCount.sum();
+    }
+
+    /**
+     * @return the total size of compressed response bodies before compression, in bytes
+     */
+    public long getUncompressedBytes() {
+        return _uncompressedBytes.sum();
+    }
+
+    /**
+     * @return the total size of compressed response bodies after compression, in bytes
+     */
+    public long getCompressedBytes() {
+        return _compressedBytes.sum();
+    }
+
+    /**
+     * @return the size of compressed bodies relative to their original size, or 1 if none were compressed
+     */
+    public double getCompressionRatio() {
+        long uncompressed = _uncompressedBytes.sum();
+        return uncompressed == 0 ? 1 : (double) _compressedBytes.sum() / uncompressed;
+    }
+
+    /**
+     * @return the total CPU time spent compressing responses, in nanoseconds
+     */
+    public long getCompressionCpuNanos() {
+        return _compressionCpuNanos.sum();
+    }
+
+    // Private
+
+    void recordCall(HttpStatus status, long durationNanos) {
+        counter(_statusCounts, status).increment();
+        _latency.record(durationNanos);
+    }
+
+    void recordFailure(Throwable t) {
+        counter(_failureCounts, t.getClass()).increment();
+    }
+
+    void recordCoalesced() {
+        _coalescedCount.increment();
+    }
+
+    void recordCompression(long uncompressedBytes, long compressedBytes, long cpuNanos, boolean cached) {
+        _compressedCount.increment();
+        if (cached) {
+            _compressionCacheHitCount.increment();
+        }
+        _uncompressedBytes.add(uncompressedBytes);
+        _compressedBytes.add(compressedBytes);
+        _compressionCpuNanos.add(cpuNanos);
+    }
+
+    // Static
+
+    private static <K> LongAdder counter(ConcurrentHashMap<K, LongAdder> counters, K key) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        return counter;
+    }
+
+}
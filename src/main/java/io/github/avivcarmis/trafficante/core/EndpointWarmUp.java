@@ -0,0 +1,240 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.avivcarmis.trafficante.adapters.spring.EndpointDescriptor;
+import io.github.avivcarmis.trafficante.adapters.spring.EndpointRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the JIT compiler before the server accepts connections, when enabled by
+ * {@link Trafficante.Settings#getWarmUpMillis()}.
+ *
+ * Runs once all singletons are instantiated, which precedes the start of the embedded server.
+ * Each endpoint is looked up, parses its warm-up requests from JSON or from a query string,
+ * validates them and serializes a wrapped response, repeatedly, until its time is up or
+ * 10,000 requests were executed. The time spent on each endpoint is logged.
+ *
+ * Warm-up requests are given by {@link BasicEndpoint#defaultWarmUpRequestsProvider()}, or otherwise
+ * synthesized from the request type, filling each property with a placeholder value. Responses are
+ * synthesized from the response type the same way, unless the endpoint handles warm-up requests.
+ */
+@Component
+public class EndpointWarmUp implements SmartInitializingSingleton {
+
+    // Constants
+
+    private static final Logger LOG = LoggerFactory.getLogger(EndpointWarmUp.class);
+
+    private static final int MAX_ITERATIONS = 10_000;
+
+    /**
+     * The depth of nested objects synthesized samples are filled to, guarding against recursive types
+     */
+    private static final int MAX_SAMPLE_DEPTH = 4;
+
+    private static final String SAMPLE_TEXT = "warm-up";
+
+    // Fields
+
+    private final ObjectMapper _objectMapper;
+
+    private final EndpointRegistry _endpointRegistry;
+
+    // Constructors
+
+    @Autowired
+    public EndpointWarmUp(ObjectMapper objectMapper, EndpointRegistry endpointRegistry) {
+        _objectMapper = objectMapper;
+        _endpointRegistry = endpointRegistry;
+    }
+
+    // Public
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Trafficante.Settings settings = Trafficante.getSettings();
+        if (settings == null || settings.getWarmUpMillis() == null) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        for (EndpointDescriptor descriptor : _endpointRegistry.getAll()) {
+            warmUp(descriptor, TimeUnit.MILLISECONDS.toNanos(settings.getWarmUpMillis()));
+        }
+        LOG.info("warmed up {} endpoints in {} ms",
+                _endpointRegistry.getAll().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    // Private
+
+    private void warmUp(EndpointDescriptor descriptor, long budgetNanos) {
+        BasicEndpoint<Object, ?, ?> endpoint = descriptor.getEndpoint();
+        String apiPath = endpoint.getHttpMethod() + " " + descriptor.getPath();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + budgetNanos;
+        int iterations = 0;
+        try {
+            List<JsonNode> samples = requestSamples(descriptor);
+            Object response = responseSample(endpoint);
+            List<byte[]> bodies = new ArrayList<>(samples.size());
+            List<Map<String, String[]>> queryStrings = new ArrayList<>(samples.size());
+            for (JsonNode sample : samples) {
+                bodies.add(_objectMapper.writeValueAsBytes(sample));
+                queryStrings.add(queryString(sample));
+            }
+            while (iterations < MAX_ITERATIONS && System.nanoTime() < deadlineNanos) {
+                int index = iterations % samples.size();
+                EndpointDescriptor resolved = _endpointRegistry.get(endpoint.getHttpMethod(), descriptor.getPath());
+                Object request = resolved.getContentClass() == HttpMethodContentClass.QUERY_STRING ?
+                        resolved.bind(queryStrings.get(index)) :
+                        resolved.read(new ByteArrayInputStream(bodies.get(index)));
+                //noinspection unchecked
+                ((BasicEndpoint<Object, Object, ?>) endpoint).warmUp(request, response);
+                iterations++;
+            }
+        } catch (Throwable t) {
+            LOG.warn("warm-up of {} stopped after {} iterations: {}", apiPath, iterations, t.toString());
+            return;
+        }
+        LOG.info("warmed up {} in {} ms, {} iterations",
+                apiPath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), iterations);
+    }
+
+    /**
+     * @param descriptor the descriptor of an endpoint
+     * @return the JSON trees of the warm-up requests of the endpoint, never empty
+     */
+    private List<JsonNode> requestSamples(EndpointDescriptor descriptor) {
+        List<Object> requests = descriptor.getEndpoint().defaultWarmUpRequestsProvider();
+        if (requests == null || requests.isEmpty()) {
+            JsonNode sample = sample(descriptor.getRequestType(), 0);
+            return Collections.singletonList(sample == null ? _objectMapper.getNodeFactory().objectNode() : sample);
+        }
+        List<JsonNode> result = new ArrayList<>(requests.size());
+        for (Object request : requests) {
+            result.add(_objectMapper.valueToTree(request));
+        }
+        return result;
+    }
+
+    /**
+     * @param endpoint an endpoint
+     * @return a response synthesized from the response type of the endpoint,
+     * or null if the endpoint handles warm-up requests or the response type cannot be synthesized
+     */
+    private Object responseSample(BasicEndpoint<Object, ?, ?> endpoint) {
+        JavaType[] typeParameters = _objectMapper
+                .constructType(ClassUtils.getUserClass(endpoint))
+                .findTypeParameters(BasicEndpoint.class);
+        if (endpoint.defaultWarmUpHandlingProvider() || typeParameters.length < 2) {
+            return null;
+        }
+        try {
+            return _objectMapper.readerFor(typeParameters[1]).readValue(sample(typeParameters[1], 0));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param type  the type to synthesize
+     * @param depth the depth of the synthesized value within the synthesized sample
+     * @return a JSON tree of the given type, with all of its properties filled with placeholder values,
+     * or null if the type has no placeholder
+     */
+    private JsonNode sample(JavaType type, int depth) {
+        Class<?> rawClass = ClassUtils.resolvePrimitiveIfNecessary(type.getRawClass());
+        JsonNodeFactory nodes = _objectMapper.getNodeFactory();
+        if (CharSequence.class.isAssignableFrom(rawClass)) {
+            return nodes.textNode(SAMPLE_TEXT);
+        }
+        if (rawClass == Character.class) {
+            return nodes.textNode(SAMPLE_TEXT.substring(0, 1));
+        }
+        if (rawClass == Boolean.class) {
+            return nodes.booleanNode(true);
+        }
+        if (Number.class.isAssignableFrom(rawClass)) {
+            return nodes.numberNode(1);
+        }
+        if (rawClass.isEnum()) {
+            Object[] constants = rawClass.getEnumConstants();
+            return constants.length == 0 ? null : _objectMapper.valueToTree(constants[0]);
+        }
+        if (type.isMapLikeType()) {
+            return nodes.objectNode();
+        }
+        if (type.isArrayType() || type.isCollectionLikeType()) {
+            ArrayNode result = nodes.arrayNode();
+            JsonNode element = depth < MAX_SAMPLE_DEPTH ? sample(type.getContentType(), depth + 1) : null;
+            if (element != null) {
+                result.add(element);
+            }
+            return result;
+        }
+        if (depth >= MAX_SAMPLE_DEPTH || rawClass.isInterface() || rawClass.getName().startsWith("java.")) {
+            return null;
+        }
+        ObjectNode result = nodes.objectNode();
+        BeanDescription description = _objectMapper.getDeserializationConfig().introspect(type);
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (!property.couldDeserialize()) {
+                continue;
+            }
+            JsonNode value = sample(property.getPrimaryType(), depth + 1);
+            if (value != null) {
+                result.set(property.getName(), value);
+            }
+        }
+        return result;
+    }
+
+    // Static
+
+    /**
+     * @param sample the JSON tree of a request
+     * @return the query string parameters of the scalar properties of the request
+     */
+    private static Map<String, String[]> queryString(JsonNode sample) {
+        Map<String, String[]> result = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = sample.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isValueNode()) {
+                result.put(field.getKey(), new String[]{value.asText()});
+            } else if (value.isArray()) {
+                List<String> values = new ArrayList<>(value.size());
+                for (JsonNode element : value) {
+                    if (element.isValueNode()) {
+                        values.add(element.asText());
+                    }
+                }
+                result.put(field.getKey(), values.toArray(new String[values.size()]));
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,204 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes flow log entries of all endpoints on a single background thread.
+ * Entries are handed over through a bounded lock-free ring buffer, so that request threads
+ * never block on, nor pay for, serialization and log I/O. When the buffer is full,
+ * entries are dropped and the amount of dropped entries is periodically reported.
+ */
+final class FlowLogWriter {
+
+    // Constants
+
+    private static final Log LOG = LogFactory.getLog(BasicEndpoint.class);
+
+    private static final int CAPACITY = 8192;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Fields
+
+    private final int _capacity;
+
+    private final int _mask;
+
+    private final AtomicReferenceArray<Entry> _slots;
+
+    /**
+     * The sequence of each slot: equals the producer position when the slot is free,
+     * and the producer position plus one when the slot holds an entry
+     */
+    private final AtomicLongArray _sequences;
+
+    private final AtomicLong _producerPosition;
+
+    private final LongAdder _droppedCount;
+
+    /**
+     * Accessed by the writer thread only
+     */
+    private long _consumerPosition;
+
+    // Constructors
+
+    /**
+     * Creates a writer without starting its thread, entries are to be taken using {@link #poll()}
+     * @param capacity the amount of entries the buffer holds, must be a power of two
+     */
+    FlowLogWriter(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("flow log buffer capacity must be a power of two");
+        }
+        _capacity = capacity;
+        _mask = capacity - 1;
+        _slots = new AtomicReferenceArray<>(capacity);
+        _sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            _sequences.set(i, i);
+        }
+        _producerPosition = new AtomicLong();
+        _droppedCount = new LongAdder();
+        _consumerPosition = 0;
+    }
+
+    // Public
+
+    /**
+     * Hands the given entry over to the writer thread, or drops it in case the buffer is full
+     * @param logger the logger formatting the entry
+     * @param body   the request or response body of the entry
+     * @param status the status of the response, or null for a request entry
+     */
+    void offer(FlowLogger logger, Object body, HttpStatus status) {
+        long position;
+        int index;
+        while (true) {
+            position = _producerPosition.get();
+            index = (int) position & _mask;
+            long sequence = _sequences.get(index);
+            if (sequence == position) {
+                if (_producerPosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                _droppedCount.increment();
+                return;
+            }
+        }
+        _slots.lazySet(index, new Entry(logger, body, status));
+        _sequences.lazySet(index, position + 1);
+    }
+
+    /**
+     * @return the amount of entries dropped since last reported
+     */
+    long getDroppedCount() {
+        return _droppedCount.sum();
+    }
+
+    // Private
+
+    /**
+     * Takes the next entry out of the buffer. Must be called by a single thread.
+     * @return the next entry, or null if the buffer is empty
+     */
+    Entry poll() {
+        int index = (int) _consumerPosition & _mask;
+        if (_sequences.get(index) != _consumerPosition + 1) {
+            return null;
+        }
+        Entry entry = _slots.get(index);
+        _slots.lazySet(index, null);
+        _sequences.lazySet(index, _consumerPosition + _capacity);
+        _consumerPosition++;
+        return entry;
+    }
+
+    private void start() {
+        Thread thread = new Thread(this::run, "flow-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (true) {
+            Entry entry = poll();
+            if (entry == null) {
+                reportDropped();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                LOG.info(entry._logger.format(entry._body, entry._status));
+            } catch (Throwable t) {
+                LOG.warn("could not write flow log entry", t);
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long dropped = _droppedCount.sumThenReset();
+        if (dropped > 0) {
+            LOG.warn("flow log buffer is full, dropped " + dropped + " entries");
+        }
+    }
+
+    // Static
+
+    /**
+     * @return the writer instance, starting its thread upon first access
+     */
+    static FlowLogWriter get() {
+        return Holder.INSTANCE;
+    }
+
+    // Inner
+
+    private static class Holder {
+
+        private static final FlowLogWriter INSTANCE = new FlowLogWriter(CAPACITY);
+
+        static {
+            INSTANCE.start();
+        }
+
+    }
+
+    static class Entry {
+
+        // Fields
+
+        private final FlowLogger _logger;
+
+        private final Object _body;
+
+        private final HttpStatus _status;
+
+        // Constructors
+
+        private Entry(FlowLogger logger, Object body, HttpStatus status) {
+            _logger = logger;
+            _body = body;
+            _status = status;
+        }
+
+        // Public
+
+        Object getBody() {
+            return _body;
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The flow logger of a single endpoint.
+ * Decides which calls are logged, and hands their request and response bodies to the
+ * {@link FlowLogWriter}, which serializes and writes them in the background.
+ * Note that bodies are therefore serialized after the call, and should not be modified once
+ * the response is produced.
+ *
+ * A call is logged if it is sampled upon entering, according to the sampling rate of the endpoint,
+ * or if it ends with an error status, in which case both its request and response are logged.
+ */
+final class FlowLogger {
+
+    // Fields
+
+    private final String _apiPath;
+
+    private final ObjectMapper _objectMapper;
+
+    private final double _samplingRate;
+
+    private final FlowLogWriter _writer;
+
+    // Constructors
+
+    FlowLogger(String apiPath, ObjectMapper objectMapper, double samplingRate) {
+        _apiPath = apiPath;
+        _objectMapper = objectMapper;
+        _samplingRate = samplingRate;
+        _writer = FlowLogWriter.get();
+    }
+
+    // Public
+
+    /**
+     * Samples a call and logs its request if sampled
+     * @param request the parsed client request
+     * @return the logged call, to be passed to {@link #exit(Call, HttpStatus, Object)}
+     */
+    Call enter(Object request) {
+        boolean sampled = _samplingRate >= 1 ||
+                (_samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < _samplingRate);
+        if (sampled) {
+            _writer.offer(this, request, null);
+        }
+        return new Call(request, sampled);
+    }
+
+    /**
+     * Logs the response of a call if it was sampled or has failed
+     * @param call     the call returned by {@link #enter(Object)}, or null if the call
+     *                 has failed before entering
+     * @param status   the status of the response
+     * @param response the response body
+     */
+    void exit(Call call, HttpStatus status, Object response) {
+        boolean sampled = call != null && call._sampled;
+        if (!sampled) {
+            if (!status.is4xxClientError() && !status.is5xxServerError()) {
+                return;
+            }
+            if (call != null) {
+                _writer.offer(this, call._request, null);
+            }
+        }
+        _writer.offer(this, response, status);
+    }
+
+    // Private
+
+    /**
+     * Formats an entry of this logger, called on the writer thread
+     */
+    String format(Object body, HttpStatus status) throws JsonProcessingException {
+        if (status == null) {
+            return "Entering " + _apiPath + " with " + _objectMapper.writeValueAsString(body);
+        }
+        return "Exiting " + _apiPath + " with status " + status + " and body " +
+                _objectMapper.writeValueAsString(body);
+    }
+
+    // Inner
+
+    /**
+     * A call in progress
+     */
+    static class Call {
+
+        // Fields
+
+        private final Object _request;
+
+        private final boolean _sampled;
+
+        // Constructors
+
+        private Call(Object request, boolean sampled) {
+            _request = request;
+            _sampled = sampled;
+        }
+
+    }
+
+}
@@ -1,17 +1,18 @@
 package io.github.avivcarmis.trafficante.core;
 
-import com.google.common.collect.ImmutableMap;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Classifies {@link RequestMethod} and {@link HttpMethod} by the
  * method of delivering request body.
+ * Classification is a single lookup in a table built once per method type.
  */
 public enum HttpMethodContentClass {
 
@@ -44,33 +45,34 @@ public enum HttpMethodContentClass {
     // Constructors
 
     HttpMethodContentClass(RequestMethod... supportedMethods) {
-        _supportedMethods = new HashSet<>(Arrays.asList(supportedMethods));
+        _supportedMethods = EnumSet.copyOf(Arrays.asList(supportedMethods));
     }
 
     // Static
 
-    private static final Map<HttpMethod, RequestMethod> METHOD_MAPPER = ImmutableMap.<HttpMethod, RequestMethod>builder()
-            .put(HttpMethod.GET, RequestMethod.GET)
-            .put(HttpMethod.HEAD, RequestMethod.HEAD)
-            .put(HttpMethod.POST, RequestMethod.POST)
-            .put(HttpMethod.PUT, RequestMethod.PUT)
-            .put(HttpMethod.PATCH, RequestMethod.PATCH)
-            .put(HttpMethod.DELETE, RequestMethod.DELETE)
-            .put(HttpMethod.OPTIONS, RequestMethod.OPTIONS)
-            .put(HttpMethod.TRACE, RequestMethod.TRACE)
-            .build();
+    private static final Map<RequestMethod, HttpMethodContentClass> REQUEST_METHOD_CLASSES =
+            new EnumMap<>(RequestMethod.class);
 
-    public static HttpMethodContentClass classify(RequestMethod requestMethod) {
+    private static final Map<HttpMethod, HttpMethodContentClass> HTTP_METHOD_CLASSES =
+            new EnumMap<>(HttpMethod.class);
+
+    static {
         for (HttpMethodContentClass contentClass : values()) {
-            if (contentClass._supportedMethods.contains(requestMethod)) {
-                return contentClass;
+            for (RequestMethod requestMethod : contentClass._supportedMethods) {
+                REQUEST_METHOD_CLASSES.put(requestMethod, contentClass);
+                HTTP_METHOD_CLASSES.put(HttpMethod.valueOf(requestMethod.name()), contentClass);
             }
         }
-        return QUERY_STRING;
+    }
+
+    public static HttpMethodContentClass classify(RequestMethod requestMethod) {
+        HttpMethodContentClass result = requestMethod == null ? null : REQUEST_METHOD_CLASSES.get(requestMethod);
+        return result == null ? QUERY_STRING : result;
     }
 
     public static HttpMethodContentClass classify(HttpMethod httpMethod) {
-        return classify(METHOD_MAPPER.get(httpMethod));
+        HttpMethodContentClass result = httpMethod == null ? null : HTTP_METHOD_CLASSES.get(httpMethod);
+        return result == null ? QUERY_STRING : result;
     }
 
 }
@@ -0,0 +1,199 @@
+package io.github.avivcarmis.trafficante.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A low overhead, thread safe histogram of durations in nanoseconds.
+ * Durations are counted in log-linear buckets: each power of two range is split
+ * into 32 linear sub buckets, bounding the relative error of reported values by about 3%.
+ *
+ * To avoid contention, recording threads are spread over independent stripes of buckets,
+ * which are allocated upon first use and merged only when taking a {@link Snapshot}.
+ */
+public class LatencyHistogram {
+
+    // Constants
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Larger durations, about 18 minutes, are counted as this value
+     */
+    private static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    private static final int STRIPE_COUNT = stripeCount();
+
+    // Fields
+
+    private final AtomicReferenceArray<AtomicLongArray> _stripes;
+
+    private final LongAdder _sum;
+
+    private final LongAccumulator _max;
+
+    // Constructors
+
+    public LatencyHistogram() {
+        _stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+        _sum = new LongAdder();
+        _max = new LongAccumulator(Math::max, 0);
+    }
+
+    // Public
+
+    /**
+     * Records a single duration
+     * @param nanos the duration in nanoseconds, negative values are counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_TRACKABLE_VALUE);
+        stripe().incrementAndGet(bucketIndex(value));
+        _sum.add(value);
+        _max.accumulate(value);
+    }
+
+    /**
+     * @return a point in time copy of the recorded durations
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            AtomicLongArray stripe = _stripes.get(i);
+            if (stripe == null) {
+                continue;
+            }
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                counts[j] += stripe.get(j);
+            }
+        }
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return new Snapshot(counts, total, _sum.sum(), _max.get());
+    }
+
+    // Private
+
+    private AtomicLongArray stripe() {
+        int index = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        AtomicLongArray stripe = _stripes.get(index);
+        if (stripe == null) {
+            _stripes.compareAndSet(index, null, new AtomicLongArray(BUCKET_COUNT));
+            stripe = _stripes.get(index);
+        }
+        return stripe;
+    }
+
+    // Static
+
+    private static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long bucketLowerBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+    }
+
+    private static long bucketMedian(int index) {
+        long lowerBound = bucketLowerBound(index);
+        long width = bucketLowerBound(index + 1) - lowerBound;
+        return lowerBound + width / 2;
+    }
+
+    private static int stripeCount() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min(Integer.highestOneBit(Math.max(1, processors * 2 - 1)), 16);
+    }
+
+    // Inner
+
+    /**
+     * A point in time copy of a histogram
+     */
+    public static class Snapshot {
+
+        // Fields
+
+        private final long[] _counts;
+
+        private final long _count;
+
+        private final long _sum;
+
+        private final long _max;
+
+        // Constructors
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            _counts = counts;
+            _count = count;
+            _sum = sum;
+            _max = max;
+        }
+
+        // Public
+
+        /**
+         * @return the amount of recorded durations
+         */
+        public long getCount() {
+            return _count;
+        }
+
+        /**
+         * @return the sum of recorded durations in nanoseconds
+         */
+        public long getSum() {
+            return _sum;
+        }
+
+        /**
+         * @return the maximal recorded duration in nanoseconds
+         */
+        public long getMax() {
+            return _max;
+        }
+
+        /**
+         * @return the mean recorded duration in nanoseconds, 0 if none recorded
+         */
+        public double getMean() {
+            return _count == 0 ? 0 : (double) _sum / _count;
+        }
+
+        /**
+         * @param quantile the quantile to compute, between 0 and 1
+         * @return the duration in nanoseconds below which the given quantile of durations fall,
+         * 0 if none recorded
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (_count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * _count));
+            long seen = 0;
+            for (int i = 0; i < _counts.length; i++) {
+                seen += _counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketMedian(i), _max);
+                }
+            }
+            return _max;
+        }
+
+    }
+
+}
@@ -0,0 +1,268 @@
+package io.github.avivcarmis.trafficante.core;
+
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate of calls to a single endpoint, either as a whole or separately for each key
+ * extracted from the calls, such as a client header, the client address or a field of the request.
+ *
+ * Each key is given a token bucket, refilled at a constant rate up to a burst capacity. The bucket is
+ * kept as the time it would be full again, so that a call takes a token with a single compare and set
+ * and without locking. Full buckets hold no information, and so keys idle long enough to refill are
+ * evicted once the amount of keys exceeds its bound. When all keys are active, calls with new keys
+ * share a single overflow bucket until some key becomes idle.
+ *
+ * Calls exceeding the limit are failed with {@link HttpStatus#TOO_MANY_REQUESTS}, wrapped by the
+ * endpoint, along with a `Retry-After` header. Provide an instance from
+ * {@link BasicEndpoint#defaultRateLimiterProvider()} to enable rate limiting.
+ *
+ * @param <REQ> the type of the endpoint request entity
+ */
+public class RateLimiter<REQ> {
+
+    // Constants
+
+    /**
+     * The key of calls with no key, e.g. lacking the header they are limited by
+     */
+    private static final String MISSING_KEY = "";
+
+    private static final ConstantAPIException REJECTION = new ConstantAPIException("too many requests", HttpStatus.TOO_MANY_REQUESTS);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Fields
+
+    private final KeyExtractor<REQ> _keyExtractor;
+
+    private final double _permitsPerSecond;
+
+    private final int _burst;
+
+    private final int _maxKeys;
+
+    private final long _intervalNanos;
+
+    private final long _burstNanos;
+
+    private final ConcurrentHashMap<String, AtomicLong> _buckets;
+
+    private final AtomicLong _overflowBucket;
+
+    private final AtomicLong _nextEvictionNanos;
+
+    private final AtomicBoolean _evicting;
+
+    private final LongAdder _rejectedCount;
+
+    // Constructors
+
+    private RateLimiter(KeyExtractor<REQ> keyExtractor, double permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0 || burst <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("rate limit permits per second, burst and max keys must be positive");
+        }
+        _keyExtractor = keyExtractor;
+        _permitsPerSecond = permitsPerSecond;
+        _burst = burst;
+        _maxKeys = maxKeys;
+        _intervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / permitsPerSecond));
+        _burstNanos = _intervalNanos * burst;
+        _buckets = new ConcurrentHashMap<>();
+        long now = System.nanoTime();
+        _overflowBucket = new AtomicLong(now);
+        _nextEvictionNanos = new AtomicLong(now);
+        _evicting = new AtomicBoolean(false);
+        _rejectedCount = new LongAdder();
+    }
+
+    // Public
+
+    public double getPermitsPerSecond() {
+        return _permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return _burst;
+    }
+
+    public int getMaxKeys() {
+        return _maxKeys;
+    }
+
+    /**
+     * @return the amount of keys currently tracked, including idle ones not yet evicted
+     */
+    public int getKeyCount() {
+        return _buckets.size();
+    }
+
+    /**
+     * @return the amount of calls rejected since the rate limiter was created
+     */
+    public long getRejectedCount() {
+        return _rejectedCount.sum();
+    }
+
+    // Private
+
+    /**
+     * Takes a token from the bucket of the given call
+     * @param request the parsed and validated client request
+     * @throws APIException with {@link HttpStatus#TOO_MANY_REQUESTS}, in case the bucket is empty
+     */
+    void acquire(REQ request) throws APIException {
+        String key = _keyExtractor.keyOf(request, RequestContext.current());
+        long now = System.nanoTime();
+        long waitNanos = take(bucket(key == null ? MISSING_KEY : key, now), now);
+        if (waitNanos > 0) {
+            _rejectedCount.increment();
+            long retryAfterSeconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+            RequestContext.current().addResponseHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            throw REJECTION;
+        }
+    }
+
+    /**
+     * @param bucket the time the bucket is full again
+     * @param now    the current time
+     * @return 0 if a token was taken, otherwise the time until the next token is available, in nanoseconds
+     */
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + _intervalNanos;
+            if (next - now > _burstNanos) {
+                return next - now - _burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = _buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (_buckets.size() >= _maxKeys) {
+            evictIdle(now);
+            if (_buckets.size() >= _maxKeys) {
+                return _overflowBucket;
+            }
+        }
+        bucket = _buckets.putIfAbsent(key, new AtomicLong(now));
+        return bucket == null ? _buckets.get(key) : bucket;
+    }
+
+    /**
+     * Removes the buckets which are full. Since a bucket refills completely within the burst duration,
+     * scans run at most once per burst duration, and by a single thread at a time.
+     * @param now the current time
+     */
+    private void evictIdle(long now) {
+        long nextEviction = _nextEvictionNanos.get();
+        if (now - nextEviction < 0 ||
+                !_nextEvictionNanos.compareAndSet(nextEviction, now + _burstNanos) ||
+                !_evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<AtomicLong> iterator = _buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().get() - now <= 0) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            _evicting.set(false);
+        }
+    }
+
+    // Static
+
+    /**
+     * @param permitsPerSecond the rate at which calls are permitted
+     * @param burst            the amount of calls permitted at once after being idle
+     * @param <REQ>            the type of the endpoint request entity
+     * @return a rate limiter of all calls to the endpoint
+     */
+    public static <REQ> RateLimiter<REQ> perEndpoint(double permitsPerSecond, int burst) {
+        return new RateLimiter<>((request, context) -> MISSING_KEY, permitsPerSecond, burst, 1);
+    }
+
+    /**
+     * Calls lacking the header share a single limit
+     * @param header           the name of the request header to limit calls by
+     * @param permitsPerSecond the rate at which calls are permitted for each header value
+     * @param burst            the amount of calls permitted at once for each header value after being idle
+     * @param maxKeys          the maximal amount of header values tracked
+     * @param <REQ>            the type of the endpoint request entity
+     * @return a rate limiter of calls by the value of the given request header
+     */
+    public static <REQ> RateLimiter<REQ> perHeader(String header, double permitsPerSecond, int burst, int maxKeys) {
+        if (header == null) {
+            throw new IllegalArgumentException("rate limit header cannot be null");
+        }
+        return new RateLimiter<>((request, context) -> context.getRequestHeader(header), permitsPerSecond, burst, maxKeys);
+    }
+
+    /**
+     * Note that behind a proxy, calls should rather be limited by the header the proxy forwards the client address in
+     * @param permitsPerSecond the rate at which calls are permitted for each address
+     * @param burst            the amount of calls permitted at once for each address after being idle
+     * @param maxKeys          the maximal amount of addresses tracked
+     * @param <REQ>            the type of the endpoint request entity
+     * @return a rate limiter of calls by the remote address of the client
+     */
+    public static <REQ> RateLimiter<REQ> perRemoteAddress(double permitsPerSecond, int burst, int maxKeys) {
+        return new RateLimiter<>((request, context) -> context.getServletRequest().getRemoteAddr(),
+                permitsPerSecond, burst, maxKeys);
+    }
+
+    /**
+     * Calls with a null key share a single limit
+     * @param keyExtractor     extracts the key to limit a call by
+     * @param permitsPerSecond the rate at which calls are permitted for each key
+     * @param burst            the amount of calls permitted at once for each key after being idle
+     * @param maxKeys          the maximal amount of keys tracked
+     * @param <REQ>            the type of the endpoint request entity
+     * @return a rate limiter of calls by the extracted key, e.g. a field of the request
+     */
+    public static <REQ> RateLimiter<REQ> perKey(KeyExtractor<REQ> keyExtractor, double permitsPerSecond, int burst, int maxKeys) {
+        if (keyExtractor == null) {
+            throw new IllegalArgumentException("rate limit key extractor cannot be null");
+        }
+        return new RateLimiter<>(keyExtractor, permitsPerSecond, burst, maxKeys);
+    }
+
+    // Inner
+
+    /**
+     * Extracts the key to limit a call by
+     *
+     * @param <REQ> the type of the endpoint request entity
+     */
+    @FunctionalInterface
+    public interface KeyExtractor<REQ> {
+
+        /**
+         * @param request the parsed and validated client request
+         * @param context the context of the call
+         * @return the key of the call, may be null
+         */
+        String keyOf(REQ request, RequestContext context);
+
+    }
+
+}
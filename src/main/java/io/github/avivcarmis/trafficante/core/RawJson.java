@@ -0,0 +1,234 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A value which is already serialized as JSON, such as a JSON blob read from a database or a response
+ * assembled by another service. Return it as the response of an endpoint, or anywhere within it, and
+ * it is written as is where the value would go, e.g. inside the response wrapper, without parsing it
+ * and serializing it again.
+ *
+ * The content is not validated, and must be a single valid UTF-8 encoded JSON value.
+ *
+ * When the response is written in a binary format, such as Smile or CBOR, the content is
+ * translated to that format token by token, which still avoids binding it to entities.
+ */
+public final class RawJson implements JsonSerializable {
+
+    // Constants
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Fields
+
+    private final byte[] _utf8;
+
+    private final Utf8String _serializable;
+
+    // Constructors
+
+    private RawJson(byte[] utf8) {
+        _utf8 = utf8;
+        _serializable = new Utf8String(utf8);
+    }
+
+    // Public
+
+    /**
+     * @return the amount of bytes of the content
+     */
+    public int getLength() {
+        return _utf8.length;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (generator instanceof JsonGeneratorImpl) {
+            generator.writeRawValue(_serializable);
+            return;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(_utf8)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator,
+                                  SerializerProvider provider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, provider);
+    }
+
+    @Override
+    public String toString() {
+        return _serializable.getValue();
+    }
+
+    // Static
+
+    /**
+     * Note that the given array is not copied, and so must not be modified afterwards
+     * @param utf8 UTF-8 encoded JSON content
+     * @return the raw value
+     */
+    public static RawJson of(byte[] utf8) {
+        if (utf8 == null) {
+            throw new IllegalArgumentException("raw json content cannot be null");
+        }
+        return new RawJson(utf8);
+    }
+
+    /**
+     * The remaining bytes of the buffer are used as is when they span its entire backing array, and are
+     * copied otherwise. The position of the buffer is not changed.
+     * @param utf8 UTF-8 encoded JSON content, between the position and the limit of the buffer
+     * @return the raw value
+     */
+    public static RawJson of(ByteBuffer utf8) {
+        if (utf8 == null) {
+            throw new IllegalArgumentException("raw json content cannot be null");
+        }
+        if (utf8.hasArray() &&
+                utf8.arrayOffset() + utf8.position() == 0 &&
+                utf8.remaining() == utf8.array().length) {
+            return new RawJson(utf8.array());
+        }
+        byte[] bytes = new byte[utf8.remaining()];
+        utf8.duplicate().get(bytes);
+        return new RawJson(bytes);
+    }
+
+    /**
+     * @param json JSON content
+     * @return the raw value
+     */
+    public static RawJson of(String json) {
+        if (json == null) {
+            throw new IllegalArgumentException("raw json content cannot be null");
+        }
+        return new RawJson(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Inner
+
+    /**
+     * Exposes the content to JSON generators, which copy the bytes as is into their output
+     * when writing UTF-8, and decode them once when writing characters.
+     * Raw content is never quoted, and so quoting is not supported.
+     */
+    private static class Utf8String implements SerializableString {
+
+        // Fields
+
+        private final byte[] _utf8;
+
+        private volatile String _value;
+
+        // Constructors
+
+        private Utf8String(byte[] utf8) {
+            _utf8 = utf8;
+        }
+
+        // Public
+
+        @Override
+        public String getValue() {
+            String value = _value;
+            if (value == null) {
+                value = new String(_utf8, StandardCharsets.UTF_8);
+                _value = value;
+            }
+            return value;
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return _utf8;
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + _utf8.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(_utf8, 0, buffer, offset, _utf8.length);
+            return _utf8.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            if (offset + value.length() > buffer.length) {
+                return -1;
+            }
+            value.getChars(0, value.length(), buffer, offset);
+            return value.length();
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(_utf8);
+            return _utf8.length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (_utf8.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(_utf8);
+            return _utf8.length;
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            throw new UnsupportedOperationException("raw json cannot be quoted");
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            throw new UnsupportedOperationException("raw json cannot be quoted");
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            throw new UnsupportedOperationException("raw json cannot be quoted");
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            throw new UnsupportedOperationException("raw json cannot be quoted");
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) {
+            throw new UnsupportedOperationException("raw json cannot be quoted");
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            throw new UnsupportedOperationException("raw json cannot be quoted");
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+package io.github.avivcarmis.trafficante.core;
+
+import io.github.avivcarmis.trafficante.exceptions.APIException;
+import io.github.avivcarmis.trafficante.exceptions.ConstantAPIException;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The state of a single call: its servlet request, its deadline, and the headers and status code of its response.
+ *
+ * A context is created once the request of a call is parsed, and is bound to the thread executing
+ * the call, from which it may be looked up using {@link #current()}. It is unbound once the thread
+ * is done with the call, so that idle threads hold no request state. The context itself may be used
+ * from any thread until the response of the call is built, and may be bound to tasks executed
+ * on other threads using {@link #wrap(Runnable)}, {@link #wrap(Callable)} or {@link #wrap(Executor)}.
+ *
+ * A call may have a deadline, after which its client is no longer expected to read the response.
+ * Long running handlers may stop early using {@link #checkDeadline()}, and forward the remaining
+ * budget of the call to downstream calls using {@link #getRemainingMillis()}, e.g. in the
+ * {@link #DEADLINE_HEADER} header of another Trafficante server.
+ */
+public final class RequestContext {
+
+    // Constants
+
+    /**
+     * The request header in which clients may specify the time they are willing to wait for the response,
+     * in milliseconds. It may only shorten the deadline of the endpoint.
+     */
+    public static final String DEADLINE_HEADER = "X-Request-Timeout";
+
+    static final ConstantAPIException DEADLINE_EXCEEDED = new ConstantAPIException("deadline exceeded", HttpStatus.GATEWAY_TIMEOUT);
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // Fields
+
+    private final HttpServletRequest _servletRequest;
+
+    private final CallTrace _callTrace;
+
+    private volatile HttpStatus _responseStatus;
+
+    private volatile long _deadlineNanos;
+
+    private MultiValueMap<String, String> _responseHeaders;
+
+    // Constructors
+
+    RequestContext(HttpServletRequest servletRequest, CallTrace callTrace) {
+        _servletRequest = servletRequest;
+        _callTrace = callTrace;
+        _responseStatus = HttpStatus.OK;
+        _deadlineNanos = NO_DEADLINE;
+    }
+
+    // Public
+
+    /**
+     * @return the servlet request of the call, or null for warm-up calls
+     */
+    public HttpServletRequest getServletRequest() {
+        return _servletRequest;
+    }
+
+    /**
+     * @param name name of the header to read
+     * @return the value of the request header, null if not found or if the call has no servlet request
+     */
+    public String getRequestHeader(String name) {
+        return _servletRequest == null ? null : _servletRequest.getHeader(name);
+    }
+
+    /**
+     * Adds an HTTP header to the response
+     * @param name  name of the header
+     * @param value value of the header
+     */
+    public synchronized void addResponseHeader(String name, String value) {
+        if (_responseHeaders == null) {
+            _responseHeaders = new LinkedMultiValueMap<>(4);
+        }
+        _responseHeaders.add(name, value);
+    }
+
+    /**
+     * @return a read only copy of the response headers written so far
+     */
+    public synchronized MultiValueMap<String, String> getResponseHeaders() {
+        return _responseHeaders == null ?
+                CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>(0)) :
+                CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>(_responseHeaders));
+    }
+
+    public void setResponseStatus(HttpStatus status) {
+        _responseStatus = status;
+    }
+
+    public HttpStatus getResponseStatus() {
+        return _responseStatus;
+    }
+
+    /**
+     * @return the time left until the deadline of the call, in milliseconds, 0 if already expired,
+     * or null if the call has no deadline
+     */
+    public Long getRemainingMillis() {
+        long deadlineNanos = _deadlineNanos;
+        if (deadlineNanos == NO_DEADLINE) {
+            return null;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * @return whether the deadline of the call has passed
+     */
+    public boolean isExpired() {
+        long deadlineNanos = _deadlineNanos;
+        return deadlineNanos != NO_DEADLINE && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Stops the execution of the call in case its deadline has passed
+     * @throws APIException with {@link HttpStatus#GATEWAY_TIMEOUT}, in case the deadline has passed
+     */
+    public void checkDeadline() throws APIException {
+        if (isExpired()) {
+            throw DEADLINE_EXCEEDED;
+        }
+    }
+
+    /**
+     * @param task a task to be executed on another thread
+     * @return a task executing the given one while this context is bound to the executing thread
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            RequestContext previous = attach();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * @param task a task to be executed on another thread
+     * @param <T>  the type of the task result
+     * @return a task executing the given one while this context is bound to the executing thread
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            RequestContext previous = attach();
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * @param executor an executor
+     * @return an executor executing tasks using the given one while this context is bound to the executing thread
+     */
+    public Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    // Private
+
+    /**
+     * Binds this context to the calling thread
+     * @return the context previously bound to the calling thread, or null if none
+     */
+    RequestContext attach() {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    CallTrace getCallTrace() {
+        return _callTrace;
+    }
+
+    /**
+     * Sets the deadline of the call, unless it already has an earlier one
+     * @param timeoutNanos the time from the start of the call to its deadline
+     */
+    void shortenDeadline(long timeoutNanos) {
+        long deadlineNanos = _callTrace.getStartNanos() + timeoutNanos;
+        if (_deadlineNanos == NO_DEADLINE || deadlineNanos - _deadlineNanos < 0) {
+            _deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /**
+     * @return the response headers written so far, or null if none were written
+     */
+    synchronized MultiValueMap<String, String> responseHeaders() {
+        return _responseHeaders;
+    }
+
+    // Static
+
+    /**
+     * @return the context of the call executed by the calling thread, or null if none
+     */
+    public static RequestContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the given context to the calling thread, or unbinds the current one if null
+     * @param context the context previously bound to the calling thread, as returned by {@link #attach()}
+     */
+    static void restore(RequestContext context) {
+        if (context == null) {
+            CURRENT.remove();
+        }
+        else {
+            CURRENT.set(context);
+        }
+    }
+
+}
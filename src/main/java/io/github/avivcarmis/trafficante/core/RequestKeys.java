@@ -0,0 +1,62 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Produces canonical keys of request entities, so that requests with equal
+ * parameters are given equal keys regardless of parameter order.
+ * Keys may also include the values of given request headers of the call of the calling thread,
+ * so that requests with equal parameters but different values of these headers are given different keys.
+ */
+class RequestKeys {
+
+    // Fields
+
+    private final ObjectWriter _writer;
+
+    private final List<String> _headers;
+
+    // Constructors
+
+    /**
+     * @param objectMapper the object mapper to serialize request entities with
+     * @param headers      the names of the request headers to include in keys, may be null
+     */
+    RequestKeys(ObjectMapper objectMapper, List<String> headers) {
+        _writer = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        _headers = headers == null ? Collections.emptyList() : headers;
+    }
+
+    // Public
+
+    /**
+     * @param request the bound request entity
+     * @return the key of the given request, or null if it cannot be serialized
+     */
+    String of(Object request) {
+        String key;
+        try {
+            key = _writer.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        if (_headers.isEmpty()) {
+            return key;
+        }
+        RequestContext context = RequestContext.current();
+        StringBuilder result = new StringBuilder(key);
+        for (String header : _headers) {
+            String value = context == null ? null : context.getRequestHeader(header);
+            // a missing header is distinguished from an empty one
+            result.append('\n').append(value == null ? "\u0000" : "=" + value);
+        }
+        return result.toString();
+    }
+
+}
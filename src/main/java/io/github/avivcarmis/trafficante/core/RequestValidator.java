@@ -0,0 +1,61 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates {@link Required} fields of request entities.
+ * Compiles a {@link ValidationPlan} once per class and reuses it for every
+ * subsequent validation of that class.
+ */
+final class RequestValidator {
+
+    // Constants
+
+    private static final ConcurrentHashMap<PropertyNamingStrategy, RequestValidator> VALIDATORS =
+            new ConcurrentHashMap<>();
+
+    private static final RequestValidator UNNAMED = new RequestValidator(null);
+
+    // Fields
+
+    private final ClassValue<ValidationPlan> _plans;
+
+    // Constructors
+
+    private RequestValidator(PropertyNamingStrategy strategy) {
+        _plans = new ClassValue<ValidationPlan>() {
+            @Override
+            protected ValidationPlan computeValue(Class<?> type) {
+                return ValidationPlan.compile(type, strategy);
+            }
+        };
+    }
+
+    // Public
+
+    /**
+     * Validates the given object, and recursively, all of its required fields
+     * @param toValidate the object to validate
+     * @throws BadRequestException in case a required field is missing
+     */
+    void validate(Object toValidate) throws BadRequestException {
+        _plans.get(toValidate.getClass()).validate(this, toValidate);
+    }
+
+    // Static
+
+    /**
+     * @param strategy the naming strategy to report missing fields with, may be null
+     * @return the shared validator of the given naming strategy
+     */
+    static RequestValidator of(PropertyNamingStrategy strategy) {
+        if (strategy == null) {
+            return UNNAMED;
+        }
+        return VALIDATORS.computeIfAbsent(strategy, RequestValidator::new);
+    }
+
+}
@@ -0,0 +1,262 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A server side cache of serialized responses of a single query string endpoint.
+ * Responses are keyed by the canonical serialized form of the bound request entity, so
+ * two requests with equal parameters share an entry regardless of parameter order.
+ * Only successful responses are cached.
+ *
+ * Entries expire after a fixed time to live, and the total weight of the cache, which is
+ * about the size of cached keys and bodies in bytes, is bounded. Entries are kept in a Guava cache,
+ * so hits take no lock, and when full, least recently used entries are evicted. Since the cache is split
+ * into {@value #CONCURRENCY_LEVEL} segments, each bounded by its share of the weight, eviction order is
+ * approximate, and responses heavier than a single share are not cached.
+ *
+ * Provide an instance from {@link BasicEndpoint#defaultResponseCacheProvider()} to enable caching.
+ */
+public class ResponseCache {
+
+    // Constants
+
+    /**
+     * Approximated memory overhead of an entry, in bytes
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * The amount of independently locked segments of the cache, each bounded by an equal share of the weight
+     */
+    private static final int CONCURRENCY_LEVEL = 4;
+
+    // Fields
+
+    private final long _ttlNanos;
+
+    private final long _maxWeight;
+
+    private final Cache<String, CachedResponse> _entries;
+
+    private final AtomicLong _weight;
+
+    private final LongAdder _hitCount;
+
+    private final LongAdder _missCount;
+
+    private final LongAdder _evictionCount;
+
+    private final AtomicBoolean _attached;
+
+    private RequestKeys _keys;
+
+    // Constructors
+
+    /**
+     * @param ttl            time for each response to live in the cache
+     * @param unit           the unit of the given time to live
+     * @param maxWeightBytes the maximal total size of cached keys and responses, in bytes
+     */
+    public ResponseCache(long ttl, TimeUnit unit, long maxWeightBytes) {
+        if (ttl <= 0 || maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("response cache time to live and max weight must be positive");
+        }
+        _ttlNanos = unit.toNanos(ttl);
+        _maxWeight = maxWeightBytes;
+        _entries = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumWeight(maxWeightBytes)
+                .<String, CachedResponse>weigher((key, entry) -> entry._weight)
+                .expireAfterWrite(_ttlNanos, TimeUnit.NANOSECONDS)
+                .removalListener(this::onRemoval)
+                .build();
+        _weight = new AtomicLong();
+        _hitCount = new LongAdder();
+        _missCount = new LongAdder();
+        _evictionCount = new LongAdder();
+        _attached = new AtomicBoolean(false);
+    }
+
+    // Public
+
+    /**
+     * Removes the cached response of the given request, if exists.
+     * In case the endpoint includes request headers in cache keys, the headers of the call of the calling thread
+     * are used, and outside of a call, the response cached for requests without these headers is removed.
+     * @param request the bound request entity
+     */
+    public void invalidate(Object request) {
+        String key = key(request);
+        if (key != null) {
+            _entries.invalidate(key);
+        }
+    }
+
+    /**
+     * Removes all cached responses
+     */
+    public void invalidateAll() {
+        _entries.invalidateAll();
+    }
+
+    public long getTtl(TimeUnit unit) {
+        return unit.convert(_ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxWeight() {
+        return _maxWeight;
+    }
+
+    /**
+     * @return the current total weight of the cache
+     */
+    public long getWeight() {
+        return _weight.get();
+    }
+
+    /**
+     * @return the amount of cached responses, including expired ones not yet removed
+     */
+    public int getSize() {
+        return (int) _entries.size();
+    }
+
+    public long getHitCount() {
+        return _hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return _missCount.sum();
+    }
+
+    /**
+     * @return the amount of responses removed to bound the weight of the cache
+     */
+    public long getEvictionCount() {
+        return _evictionCount.sum();
+    }
+
+    // Private
+
+    /**
+     * Binds the cache to the endpoint using it
+     * @param objectMapper the object mapper of the endpoint
+     * @param keyHeaders   the names of the request headers distinguishing equal requests, may be null
+     * @throws IllegalStateException in case the cache is already used by another endpoint
+     */
+    void attach(ObjectMapper objectMapper, List<String> keyHeaders) {
+        if (_attached.getAndSet(true)) {
+            throw new IllegalStateException("a response cache instance may be used by a single endpoint");
+        }
+        _keys = new RequestKeys(objectMapper, keyHeaders);
+    }
+
+    /**
+     * @param request the bound request entity
+     * @return the live cached response of the given request, or null if not cached
+     */
+    CachedResponse get(Object request) {
+        String key = key(request);
+        CachedResponse entry = key == null ? null : _entries.getIfPresent(key);
+        if (entry == null) {
+            _missCount.increment();
+            return null;
+        }
+        _hitCount.increment();
+        return entry;
+    }
+
+    /**
+     * Caches the given response of the given request
+     * @param request the bound request entity
+     * @param status  the status of the response
+     * @param headers the headers of the response, may not be modified afterwards
+     * @param body    the serialized response body
+     */
+    void put(Object request, HttpStatus status, MultiValueMap<String, String> headers, byte[] body) {
+        String key = key(request);
+        if (key == null) {
+            return;
+        }
+        long weight = ENTRY_OVERHEAD + 2L * key.length() + body.length;
+        if (weight > _maxWeight / CONCURRENCY_LEVEL) {
+            return;
+        }
+        _weight.addAndGet(weight);
+        _entries.put(key, new CachedResponse(status, headers, body, (int) weight));
+    }
+
+    /**
+     * Releases the weight of a removed entry, and counts it if evicted to bound the weight of the cache.
+     * Called for replaced, expired, invalidated and evicted entries alike.
+     * @param notification the removed entry
+     */
+    private void onRemoval(RemovalNotification<String, CachedResponse> notification) {
+        _weight.addAndGet(-notification.getValue()._weight);
+        if (notification.getCause() == RemovalCause.SIZE) {
+            _evictionCount.increment();
+        }
+    }
+
+    private String key(Object request) {
+        return _keys.of(request);
+    }
+
+    // Inner
+
+    /**
+     * A cached response
+     */
+    static class CachedResponse {
+
+        // Fields
+
+        private final HttpStatus _status;
+
+        private final MultiValueMap<String, String> _headers;
+
+        private final byte[] _body;
+
+        private final int _weight;
+
+        // Constructors
+
+        private CachedResponse(HttpStatus status,
+                               MultiValueMap<String, String> headers,
+                               byte[] body,
+                               int weight) {
+            _status = status;
+            _headers = headers;
+            _body = body;
+            _weight = weight;
+        }
+
+        // Public
+
+        HttpStatus getStatus() {
+            return _status;
+        }
+
+        MultiValueMap<String, String> getHeaders() {
+            return _headers;
+        }
+
+        byte[] getBody() {
+            return _body;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The response of a {@link BasicStreamingEndpoint}.
+ * Serialized as a JSON array whose elements are pulled from the underlying source
+ * one at a time while being written, so that the complete response is never held in memory.
+ *
+ * A response stream may be written only once, after which its source is closed.
+ *
+ * @param <T> the type of the stream elements
+ */
+public final class ResponseStream<T> implements JsonSerializable, AutoCloseable {
+
+    // Fields
+
+    private final Iterator<T> _elements;
+
+    private final AutoCloseable _source;
+
+    private final int _flushInterval;
+
+    private final AtomicBoolean _consumed;
+
+    private final AtomicBoolean _closed;
+
+    private long _count;
+
+    // Constructors
+
+    ResponseStream(Iterator<T> elements, AutoCloseable source, int flushInterval) {
+        _elements = elements;
+        _source = source;
+        _flushInterval = flushInterval;
+        _consumed = new AtomicBoolean(false);
+        _closed = new AtomicBoolean(false);
+        _count = 0;
+    }
+
+    // Public
+
+    /**
+     * @return the amount of elements written so far
+     */
+    public long getCount() {
+        return _count;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartArray();
+        forEach(generator, element -> provider.defaultSerializeValue(element, generator));
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator,
+                                  SerializerProvider provider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, provider);
+    }
+
+    /**
+     * Closes the source of the stream, releasing any resource held by it
+     */
+    @Override
+    public void close() {
+        if (_closed.getAndSet(true) || _source == null) {
+            return;
+        }
+        try {
+            _source.close();
+        } catch (Exception e) {
+            throw new RuntimeException("could not close response stream source", e);
+        }
+    }
+
+    // Private
+
+    /**
+     * Writes each element of the stream using the given writer, flushing the generator
+     * every configured amount of elements, and closes the stream once done or failed
+     * @param generator the generator the elements are written to
+     * @param writer    writes a single element
+     * @throws IOException in case writing has failed, e.g. when the client has disconnected
+     */
+    void forEach(JsonGenerator generator, ElementWriter<T> writer) throws IOException {
+        if (_consumed.getAndSet(true)) {
+            throw new IllegalStateException("response stream may be written only once");
+        }
+        try {
+            while (_elements.hasNext()) {
+                writer.write(_elements.next());
+                _count++;
+                if (_count % _flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    // Inner
+
+    /**
+     * Writes a single element of the stream
+     */
+    @FunctionalInterface
+    interface ElementWriter<T> {
+
+        void write(T element) throws IOException;
+
+    }
+
+}
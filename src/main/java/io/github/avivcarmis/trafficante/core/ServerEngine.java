@@ -0,0 +1,39 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * The embedded servlet container running a Trafficante server.
+ * Tomcat is always available, Jetty and Undertow require their Spring Boot starter,
+ * `spring-boot-starter-jetty` or `spring-boot-starter-undertow`, on the classpath.
+ */
+public enum ServerEngine {
+
+    // Values
+
+    TOMCAT("org.apache.catalina.startup.Tomcat"),
+
+    JETTY("org.eclipse.jetty.server.Server"),
+
+    UNDERTOW("io.undertow.Undertow");
+
+    // Fields
+
+    private final String _serverClassName;
+
+    // Constructors
+
+    ServerEngine(String serverClassName) {
+        _serverClassName = serverClassName;
+    }
+
+    // Public
+
+    /**
+     * @return whether the engine is present on the classpath
+     */
+    public boolean isAvailable() {
+        return ClassUtils.isPresent(_serverClassName, ServerEngine.class.getClassLoader());
+    }
+
+}
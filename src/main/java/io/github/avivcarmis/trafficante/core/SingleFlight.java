@@ -0,0 +1,125 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent executions of equal requests.
+ * The first request to join becomes the leader of a flight and is expected to execute,
+ * while equal requests joining until the leader completes the flight share its result.
+ *
+ * @param <T> the type of the shared result
+ */
+class SingleFlight<T> {
+
+    // Fields
+
+    private final RequestKeys _keys;
+
+    private final ConcurrentHashMap<String, Flight<T>> _flights;
+
+    // Constructors
+
+    /**
+     * @param objectMapper the object mapper to serialize requests with
+     * @param keyHeaders   the names of the request headers distinguishing equal requests, may be null
+     */
+    SingleFlight(ObjectMapper objectMapper, List<String> keyHeaders) {
+        _keys = new RequestKeys(objectMapper, keyHeaders);
+        _flights = new ConcurrentHashMap<>();
+    }
+
+    // Public
+
+    /**
+     * @param request the bound request entity
+     * @return the flight of an equal request in progress, or a new flight led by the caller
+     */
+    Flight<T> join(Object request) {
+        String key = _keys.of(request);
+        if (key == null) {
+            return new Flight<>(this, null, true);
+        }
+        Flight<T> created = new Flight<>(this, key, true);
+        Flight<T> existing = _flights.putIfAbsent(key, created);
+        if (existing == null) {
+            return created;
+        }
+        return new Flight<>(existing);
+    }
+
+    // Inner
+
+    /**
+     * A single execution, shared by its leader and any amount of followers
+     *
+     * @param <T> the type of the shared result
+     */
+    static class Flight<T> {
+
+        // Fields
+
+        private final SingleFlight<T> _owner;
+
+        private final String _key;
+
+        private final boolean _leader;
+
+        private final CompletableFuture<T> _result;
+
+        // Constructors
+
+        private Flight(SingleFlight<T> owner, String key, boolean leader) {
+            _owner = owner;
+            _key = key;
+            _leader = leader;
+            _result = new CompletableFuture<>();
+        }
+
+        private Flight(Flight<T> leading) {
+            _owner = leading._owner;
+            _key = leading._key;
+            _leader = false;
+            _result = leading._result;
+        }
+
+        // Public
+
+        /**
+         * @return whether the caller should execute the flight and complete it
+         */
+        boolean isLeader() {
+            return _leader;
+        }
+
+        /**
+         * @return a future completing with the shared result
+         */
+        CompletableFuture<T> getResult() {
+            return _result;
+        }
+
+        /**
+         * Ends the flight and shares its outcome with all followers.
+         * Requests joining afterwards start a new flight.
+         * @param result the result of the execution, ignored in case of failure
+         * @param t      the failure of the execution, or null if succeeded
+         */
+        void complete(T result, Throwable t) {
+            if (_key != null) {
+                _owner._flights.remove(_key, this);
+            }
+            if (t == null) {
+                _result.complete(result);
+            }
+            else {
+                _result.completeExceptionally(t);
+            }
+        }
+
+    }
+
+}
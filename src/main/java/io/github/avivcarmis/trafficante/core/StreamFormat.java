@@ -0,0 +1,38 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The way a {@link BasicStreamingEndpoint} writes its response
+ */
+public enum StreamFormat {
+
+    // Values
+
+    /**
+     * A JSON array, placed inside the response wrapper
+     */
+    JSON_ARRAY(MediaType.APPLICATION_JSON_UTF8_VALUE),
+
+    /**
+     * Newline delimited JSON, each element in its own line, without the response wrapper
+     */
+    NDJSON("application/x-ndjson");
+
+    // Fields
+
+    private final String _contentType;
+
+    // Constructors
+
+    StreamFormat(String contentType) {
+        _contentType = contentType;
+    }
+
+    // Public
+
+    public String getContentType() {
+        return _contentType;
+    }
+
+}
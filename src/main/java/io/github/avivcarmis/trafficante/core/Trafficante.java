@@ -1,6 +1,7 @@
 package io.github.avivcarmis.trafficante.core;
 
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import org.springframework.util.ClassUtils;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -13,11 +14,12 @@ public class Trafficante {
     // Constants
 
     /**
-     * Synchronizes a call to {@link #start(String, PropertyNamingStrategy, String, int, boolean, boolean, String[])},
-     * to validate no multiple servers started
+     * Synchronizes a call to {@link #start(Settings, String[])}, to validate no multiple servers started
      */
     private static final AtomicBoolean SERVER_STARTED = new AtomicBoolean(false);
 
+    private static final String AFTERBURNER_MODULE_CLASS = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
     // Static
 
     /**
@@ -26,7 +28,7 @@ public class Trafficante {
     private static Settings settings;
 
     /**
-     * Starts a Trafficante server
+     * Starts a Trafficante server on Tomcat, with the default connector tuning
      * @param basePackageName base name of package to look for endpoints in
      * @param namingStrategy  a naming strategy to be used for endpoint paths and IO serialization
      * @param host            the host to register the server with ("0.0.0.0" to enable all)
@@ -42,15 +44,32 @@ public class Trafficante {
                              boolean enableSwagger,
                              boolean enableJMX,
                              String[] args) {
+        start(
+                Settings.builder(basePackageName, namingStrategy)
+                        .host(host)
+                        .port(port)
+                        .enableSwagger(enableSwagger)
+                        .enableJMX(enableJMX)
+                        .build(),
+                args
+        );
+    }
+
+    /**
+     * Starts a Trafficante server
+     * @param serverSettings the settings of the server, see {@link Settings#builder(String, PropertyNamingStrategy)}
+     * @param args           nullable program arguments
+     */
+    public static void start(Settings serverSettings, String[] args) {
         if (SERVER_STARTED.getAndSet(true)) {
             throw new RuntimeException("server already started");
         }
-        System.setProperty(ApplicationLauncher.BASE_PACKAGE_INDICATOR, basePackageName);
-        System.setProperty("server.address", host);
-        System.setProperty("server.port", String.valueOf(port));
-        System.setProperty("spring.resources.add-mappings", String.valueOf(enableSwagger));
-        System.setProperty("spring.jmx.enabled", String.valueOf(enableJMX));
-        settings = new Settings(basePackageName, namingStrategy, host, port, enableSwagger, enableJMX);
+        System.setProperty(ApplicationLauncher.BASE_PACKAGE_INDICATOR, serverSettings.basePackageName);
+        System.setProperty("server.address", serverSettings.host);
+        System.setProperty("server.port", String.valueOf(serverSettings.port));
+        System.setProperty("spring.resources.add-mappings", String.valueOf(serverSettings.swaggerEnabled));
+        System.setProperty("spring.jmx.enabled", String.valueOf(serverSettings.enableJMX));
+        settings = serverSettings;
         ApplicationLauncher.launch(args == null ? new String[0] : args);
     }
 
@@ -62,7 +81,8 @@ public class Trafficante {
     }
 
     /**
-     * Settings of a Trafficante server
+     * Settings of a Trafficante server.
+     * Connector tuning which is not set is left to the defaults of the engine.
      */
     public static class Settings {
 
@@ -78,18 +98,43 @@ public class Trafficante {
 
         private final boolean enableJMX;
 
-        private Settings(String basePackageName,
-                         PropertyNamingStrategy namingStrategy,
-                         String host,
-                         int port,
-                         boolean swaggerEnabled,
-                         boolean enableJMX) {
-            this.basePackageName = basePackageName;
-            this.namingStrategy = namingStrategy;
-            this.host = host;
-            this.port = port;
-            this.swaggerEnabled = swaggerEnabled;
-            this.enableJMX = enableJMX;
+        private final ServerEngine engine;
+
+        private final boolean afterburnerEnabled;
+
+        private final Integer warmUpMillis;
+
+        private final Integer workerThreads;
+
+        private final Integer ioThreads;
+
+        private final Integer maxConnections;
+
+        private final Integer acceptBacklog;
+
+        private final Integer bufferSizeBytes;
+
+        private final Integer keepAliveTimeoutMillis;
+
+        private final Integer maxKeepAliveRequests;
+
+        private Settings(Builder builder) {
+            this.basePackageName = builder.basePackageName;
+            this.namingStrategy = builder.namingStrategy;
+            this.host = builder.host;
+            this.port = builder.port;
+            this.swaggerEnabled = builder.swaggerEnabled;
+            this.enableJMX = builder.enableJMX;
+            this.engine = builder.engine;
+            this.afterburnerEnabled = builder.afterburnerEnabled;
+            this.warmUpMillis = builder.warmUpMillis;
+            this.workerThreads = builder.workerThreads;
+            this.ioThreads = builder.ioThreads;
+            this.maxConnections = builder.maxConnections;
+            this.acceptBacklog = builder.acceptBacklog;
+            this.bufferSizeBytes = builder.bufferSizeBytes;
+            this.keepAliveTimeoutMillis = builder.keepAliveTimeoutMillis;
+            this.maxKeepAliveRequests = builder.maxKeepAliveRequests;
         }
 
         public String getBasePackageName() {
@@ -116,6 +161,248 @@ public class Trafficante {
             return enableJMX;
         }
 
+        public ServerEngine getEngine() {
+            return engine;
+        }
+
+        /**
+         * @return whether the Jackson Afterburner module replaces reflection in serialization and deserialization
+         */
+        public boolean isAfterburnerEnabled() {
+            return afterburnerEnabled;
+        }
+
+        /**
+         * @return the maximal time spent warming up each endpoint before the server accepts connections,
+         * in milliseconds, or null to skip warm-up
+         */
+        public Integer getWarmUpMillis() {
+            return warmUpMillis;
+        }
+
+        /**
+         * @return the maximal amount of threads executing requests, or null for the engine default
+         */
+        public Integer getWorkerThreads() {
+            return workerThreads;
+        }
+
+        /**
+         * @return the amount of threads performing non-blocking IO, i.e. Tomcat pollers,
+         * Jetty selectors or Undertow IO threads, or null for the engine default
+         */
+        public Integer getIoThreads() {
+            return ioThreads;
+        }
+
+        /**
+         * @return the maximal amount of open connections, or null for the engine default
+         */
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        /**
+         * @return the maximal amount of connections pending to be accepted, or null for the engine default
+         */
+        public Integer getAcceptBacklog() {
+            return acceptBacklog;
+        }
+
+        /**
+         * @return the size of the IO buffers of a connection, in bytes, or null for the engine default
+         */
+        public Integer getBufferSizeBytes() {
+            return bufferSizeBytes;
+        }
+
+        /**
+         * @return the time an idle keep-alive connection is kept open, in milliseconds, or null for the engine default
+         */
+        public Integer getKeepAliveTimeoutMillis() {
+            return keepAliveTimeoutMillis;
+        }
+
+        /**
+         * @return the maximal amount of requests served over a single keep-alive connection,
+         * or null for the engine default
+         */
+        public Integer getMaxKeepAliveRequests() {
+            return maxKeepAliveRequests;
+        }
+
+        /**
+         * @param basePackageName base name of package to look for endpoints in
+         * @param namingStrategy  a naming strategy to be used for endpoint paths and IO serialization
+         * @return a builder of settings, of a server listening on all hosts, on port 8080, on Tomcat,
+         * without swagger and without JMX
+         */
+        public static Builder builder(String basePackageName, PropertyNamingStrategy namingStrategy) {
+            return new Builder(basePackageName, namingStrategy);
+        }
+
+        /**
+         * Builds {@link Settings}
+         */
+        public static class Builder {
+
+            private final String basePackageName;
+
+            private final PropertyNamingStrategy namingStrategy;
+
+            private String host;
+
+            private int port;
+
+            private boolean swaggerEnabled;
+
+            private boolean enableJMX;
+
+            private ServerEngine engine;
+
+            private boolean afterburnerEnabled;
+
+            private Integer warmUpMillis;
+
+            private Integer workerThreads;
+
+            private Integer ioThreads;
+
+            private Integer maxConnections;
+
+            private Integer acceptBacklog;
+
+            private Integer bufferSizeBytes;
+
+            private Integer keepAliveTimeoutMillis;
+
+            private Integer maxKeepAliveRequests;
+
+            private Builder(String basePackageName, PropertyNamingStrategy namingStrategy) {
+                if (basePackageName == null) {
+                    throw new IllegalArgumentException("base package name cannot be null");
+                }
+                this.basePackageName = basePackageName;
+                this.namingStrategy = namingStrategy;
+                this.host = "0.0.0.0";
+                this.port = 8080;
+                this.engine = ServerEngine.TOMCAT;
+            }
+
+            public Builder host(String host) {
+                if (host == null) {
+                    throw new IllegalArgumentException("host cannot be null");
+                }
+                this.host = host;
+                return this;
+            }
+
+            public Builder port(int port) {
+                if (port < 0) {
+                    throw new IllegalArgumentException("port may not be negative");
+                }
+                this.port = port;
+                return this;
+            }
+
+            public Builder enableSwagger(boolean enableSwagger) {
+                this.swaggerEnabled = enableSwagger;
+                return this;
+            }
+
+            public Builder enableJMX(boolean enableJMX) {
+                this.enableJMX = enableJMX;
+                return this;
+            }
+
+            public Builder engine(ServerEngine engine) {
+                if (engine == null) {
+                    throw new IllegalArgumentException("server engine cannot be null");
+                }
+                this.engine = engine;
+                return this;
+            }
+
+            /**
+             * Registers the Jackson Afterburner module with the server object mappers, which generates bytecode
+             * to access fields, setters, getters and constructors instead of using reflection.
+             * Note that private members are still accessed using reflection, so entity fields should rather be
+             * package private to benefit. Requires `com.fasterxml.jackson.module:jackson-module-afterburner`.
+             */
+            public Builder enableAfterburner(boolean enableAfterburner) {
+                this.afterburnerEnabled = enableAfterburner;
+                return this;
+            }
+
+            /**
+             * Warms up the JIT compiler before the server accepts connections, by parsing, validating and
+             * answering synthetic requests of each endpoint for up to the given time, or 10,000 times,
+             * whichever comes first. See {@link BasicEndpoint#defaultWarmUpRequestsProvider()}.
+             */
+            public Builder warmUpMillis(int warmUpMillis) {
+                this.warmUpMillis = positive("warm-up time", warmUpMillis);
+                return this;
+            }
+
+            public Builder workerThreads(int workerThreads) {
+                this.workerThreads = positive("worker threads", workerThreads);
+                return this;
+            }
+
+            public Builder ioThreads(int ioThreads) {
+                this.ioThreads = positive("io threads", ioThreads);
+                return this;
+            }
+
+            public Builder maxConnections(int maxConnections) {
+                this.maxConnections = positive("max connections", maxConnections);
+                return this;
+            }
+
+            public Builder acceptBacklog(int acceptBacklog) {
+                this.acceptBacklog = positive("accept backlog", acceptBacklog);
+                return this;
+            }
+
+            public Builder bufferSizeBytes(int bufferSizeBytes) {
+                this.bufferSizeBytes = positive("buffer size", bufferSizeBytes);
+                return this;
+            }
+
+            public Builder keepAliveTimeoutMillis(int keepAliveTimeoutMillis) {
+                this.keepAliveTimeoutMillis = positive("keep-alive timeout", keepAliveTimeoutMillis);
+                return this;
+            }
+
+            public Builder maxKeepAliveRequests(int maxKeepAliveRequests) {
+                this.maxKeepAliveRequests = positive("max keep-alive requests", maxKeepAliveRequests);
+                return this;
+            }
+
+            /**
+             * @return the built settings
+             * @throws IllegalStateException in case the selected engine, or the Afterburner module
+             *                               when enabled, is not on the classpath
+             */
+            public Settings build() {
+                if (!engine.isAvailable()) {
+                    throw new IllegalStateException("server engine " + engine + " is not on the classpath");
+                }
+                if (afterburnerEnabled && !ClassUtils.isPresent(AFTERBURNER_MODULE_CLASS, Settings.class.getClassLoader())) {
+                    throw new IllegalStateException("afterburner module is not on the classpath");
+                }
+                return new Settings(this);
+            }
+
+            private static Integer positive(String name, int value) {
+                if (value <= 0) {
+                    throw new IllegalArgumentException(name + " must be positive");
+                }
+                return value;
+            }
+
+        }
+
     }
 
 }
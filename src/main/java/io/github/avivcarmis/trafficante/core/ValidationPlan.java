@@ -0,0 +1,136 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable validation plan of a single class.
+ * Holds a pre-resolved accessor and a pre-translated external name for each
+ * {@link Required} field of the class and its super classes, so that validating
+ * an instance involves no reflection and no allocations unless it fails.
+ */
+final class ValidationPlan {
+
+    // Constants
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    // Fields
+
+    private final RequiredField[] _requiredFields;
+
+    // Constructors
+
+    private ValidationPlan(RequiredField[] requiredFields) {
+        _requiredFields = requiredFields;
+    }
+
+    // Public
+
+    /**
+     * Validates the given instance and, recursively, the values of its required fields
+     * @param validator the validator to resolve plans of nested values with
+     * @param instance  the instance to validate, whose class is the class of this plan
+     * @throws BadRequestException in case a required field is missing
+     */
+    void validate(RequestValidator validator, Object instance) throws BadRequestException {
+        for (RequiredField field : _requiredFields) {
+            Object value = field.get(instance);
+            if (value == null) {
+                throw new BadRequestException("field `" + field._name + "` is required");
+            }
+            validator.validate(value);
+        }
+    }
+
+    // Static
+
+    /**
+     * Compiles a plan for the given class.
+     * Walks the class hierarchy once, so the resulting plan should be cached by the caller.
+     * @param type     the class to compile
+     * @param strategy the naming strategy to translate field names with, may be null
+     * @return the compiled plan
+     */
+    static ValidationPlan compile(Class<?> type, PropertyNamingStrategy strategy) {
+        List<RequiredField> result = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> currentClass = type;
+        while (currentClass != null && !currentClass.equals(Object.class)) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                RequiredField requiredField = compileField(lookup, strategy, field);
+                if (requiredField != null) {
+                    result.add(requiredField);
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+        return new ValidationPlan(result.toArray(new RequiredField[result.size()]));
+    }
+
+    private static RequiredField compileField(MethodHandles.Lookup lookup,
+                                              PropertyNamingStrategy strategy,
+                                              Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+            // primitive values may never be null, nor contain required fields
+            return null;
+        }
+        Required[] annotations = field.getAnnotationsByType(Required.class);
+        if (annotations == null || annotations.length == 0) {
+            return null;
+        }
+        MethodHandle getter;
+        try {
+            field.setAccessible(true);
+            getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException ignored) {
+            return null;
+        }
+        String name = field.getName();
+        if (strategy != null) {
+            name = strategy.nameForField(null, null, field.getName());
+        }
+        return new RequiredField(name, getter);
+    }
+
+    // Inner
+
+    /**
+     * A single required field of a plan
+     */
+    private static class RequiredField {
+
+        // Fields
+
+        private final String _name;
+
+        private final MethodHandle _getter;
+
+        // Constructors
+
+        private RequiredField(String name, MethodHandle getter) {
+            _name = name;
+            _getter = getter;
+        }
+
+        // Private
+
+        private Object get(Object instance) {
+            try {
+                return (Object) _getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw new IllegalStateException("could not read field `" + _name + "`", t);
+            }
+        }
+
+    }
+
+}
@@ -26,6 +26,18 @@ public class APIException extends Exception {
         this(message, HttpStatus.OK);
     }
 
+    /**
+     * Filling in the stack trace is the main cost of throwing an exception, and the stack trace
+     * of an expected failure, such as an invalid request, is usually of no use
+     * @param message            the error message
+     * @param status             the status code to respond with
+     * @param writableStackTrace whether to fill in the stack trace
+     */
+    public APIException(String message, HttpStatus status, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        _statusCode = status;
+    }
+
     // Etc
 
     public HttpStatus getStatusCode() {
@@ -3,14 +3,15 @@ package io.github.avivcarmis.trafficante.exceptions;
 import org.springframework.http.HttpStatus;
 
 /**
- * An exception to be thrown when a request is invalid
+ * An exception to be thrown when a request is invalid.
+ * Invalid requests are expected, and may be sent repeatedly, so the exception has no stack trace.
  */
 public class BadRequestException extends APIException {
 
     // Constructors
     
     public BadRequestException(String message) {
-        super(message, HttpStatus.BAD_REQUEST);
+        super(message, HttpStatus.BAD_REQUEST, false);
     }
 
 }
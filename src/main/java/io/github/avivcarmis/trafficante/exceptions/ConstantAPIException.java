@@ -0,0 +1,20 @@
+package io.github.avivcarmis.trafficante.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected failure which is always the same, to be created once and thrown as a shared instance, e.g.
+ * `static final ConstantAPIException USER_NOT_FOUND = new ConstantAPIException("user not found", HttpStatus.NOT_FOUND)`.
+ *
+ * The exception has no stack trace, no cause and no suppressed exceptions, so it may be thrown
+ * concurrently, and costs nothing to throw.
+ */
+public class ConstantAPIException extends APIException {
+
+    // Constructors
+
+    public ConstantAPIException(String message, HttpStatus status) {
+        super(message, status, false);
+    }
+
+}
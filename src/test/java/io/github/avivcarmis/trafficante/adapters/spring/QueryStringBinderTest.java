@@ -0,0 +1,271 @@
+package io.github.avivcarmis.trafficante.adapters.spring;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import io.github.avivcarmis.trafficante.exceptions.BadRequestException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares direct binding against the conversion through Jackson it replaces, which is still used
+ * for entities that cannot be bound directly, e.g. when unknown properties fail the conversion.
+ */
+public class QueryStringBinderTest {
+
+    // Constants
+
+    private static final String[] INTEGERS = {
+            "42", "-7", "+3", " 5 ", "0", "007", "", " ", "null", "abc", "1.5", "1e3", "99999999999", "0x10", "-"
+    };
+
+    private static final String[] DECIMALS = {
+            "1.5", "-2e3", "2E-3", "+0.25", "42", " 1.5 ", "1.", ".5", "1e", "NaN", "Infinity", "1e400", "", "null", "abc"
+    };
+
+    private static final String[] BOOLEANS = {"true", "True", "false", "False", "TRUE", "1", "0", "yes", " true ", "", "null"};
+
+    private static final String[] ENUMS = {"RED", "GREEN", "red", "0", "1", "5", " RED", "", "null", "PURPLE"};
+
+    // Fields
+
+    private QueryStringBinder _binder;
+
+    private QueryStringBinder _reference;
+
+    // Public
+
+    @Before
+    public void setUp() {
+        ObjectMapper objectMapper = objectMapper();
+        _binder = QueryStringBinder.create(objectMapper, Request.class);
+        _reference = QueryStringBinder.create(
+                objectMapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), Request.class);
+    }
+
+    @Test
+    public void stringsMatchConversion() {
+        assertAllMatch("text", "hello", "", " spaced ", "null", "42");
+        assertAllMatch("anything", "hello", "", "null", "42");
+    }
+
+    @Test
+    public void integersMatchConversion() {
+        assertAllMatch("count", INTEGERS);
+        assertAllMatch("boxed_count", INTEGERS);
+        assertAllMatch("id", INTEGERS);
+        assertAllMatch("boxed_id", INTEGERS);
+        assertAllMatch("id", "123456789012", "-9223372036854775808", "9223372036854775808");
+    }
+
+    @Test
+    public void decimalsMatchConversion() {
+        assertAllMatch("score", DECIMALS);
+        assertAllMatch("boxed_score", DECIMALS);
+        assertAllMatch("ratio", DECIMALS);
+        assertAllMatch("boxed_ratio", DECIMALS);
+    }
+
+    @Test
+    public void booleansMatchConversion() {
+        assertAllMatch("active", BOOLEANS);
+        assertAllMatch("boxed_active", BOOLEANS);
+    }
+
+    @Test
+    public void enumsMatchConversion() {
+        assertAllMatch("color", ENUMS);
+        assertAllMatch("code", "r", "g", "RED", "R", "", "null");
+    }
+
+    @Test
+    public void deserializedPropertiesMatchConversion() {
+        assertAllMatch("amount", "1.25", "-3", "1e2", "", "null", "abc");
+    }
+
+    @Test
+    public void severalParametersMatchConversion() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("text", new String[]{"hello"});
+        parameters.put("count", new String[]{"1", "2"});
+        parameters.put("boxed_score", new String[]{"2.5"});
+        parameters.put("color", new String[]{"GREEN"});
+        parameters.put("unknown", new String[]{"ignored"});
+        parameters.put("active", new String[0]);
+        Map<String, String[]> known = new HashMap<>(parameters);
+        known.remove("unknown");
+        assertEquals(tree(bind(_reference, known)), tree(bind(_binder, parameters)));
+    }
+
+    @Test
+    public void entitiesWithCreatorsFallBackToConversion() throws BadRequestException {
+        ObjectMapper objectMapper = objectMapper();
+        QueryStringBinder binder = QueryStringBinder.create(objectMapper, CreatorRequest.class);
+        Map<String, String> values = new HashMap<>();
+        values.put("name", "creator");
+        values.put("size", "3");
+        Map<String, String[]> parameters = new HashMap<>();
+        values.forEach((name, value) -> parameters.put(name, new String[]{value}));
+        assertEquals(objectMapper.valueToTree(objectMapper.convertValue(values, CreatorRequest.class)),
+                objectMapper.valueToTree(binder.bind(parameters)));
+        parameters.put("size", new String[]{"many"});
+        try {
+            binder.bind(parameters);
+            fail("expected a bad request");
+        } catch (BadRequestException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("field `size` must be of type "));
+        }
+    }
+
+    // Private
+
+    /**
+     * Asserts that binding each of the given values into the given parameter results in an entity equal to
+     * the one of the reference conversion, or fails with the same error message
+     */
+    private void assertAllMatch(String parameter, String... values) {
+        for (String value : values) {
+            Map<String, String[]> parameters = Collections.singletonMap(parameter, new String[]{value});
+            Object expected = bind(_reference, parameters);
+            Object actual = bind(_binder, parameters);
+            String description = parameter + "=`" + value + "`";
+            if (expected instanceof BadRequestException || actual instanceof BadRequestException) {
+                assertTrue(description + " bound as " + tree(actual) + " but conversion failed with " + expected,
+                        actual instanceof BadRequestException);
+                assertTrue(description + " failed with " + actual + " but conversion bound " + tree(expected),
+                        expected instanceof BadRequestException);
+                assertEquals(description, ((BadRequestException) expected).getMessage(),
+                        ((BadRequestException) actual).getMessage());
+            }
+            else {
+                assertEquals(description, tree(expected), tree(actual));
+            }
+        }
+    }
+
+    /**
+     * @return the bound entity, or the failure of binding it
+     */
+    private Object bind(QueryStringBinder binder, Map<String, String[]> parameters) {
+        try {
+            return binder.bind(parameters);
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+
+    private Object tree(Object entity) {
+        return entity instanceof Request ? objectMapper().valueToTree(entity) : entity;
+    }
+
+    // Static
+
+    /**
+     * @return an object mapper configured like the server object mapper
+     */
+    private static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+        return objectMapper;
+    }
+
+    // Inner
+
+    private enum Color {
+        RED, GREEN
+    }
+
+    private enum Code {
+
+        RED("r"), GREEN("g");
+
+        // Fields
+
+        private final String _value;
+
+        // Constructors
+
+        Code(String value) {
+            _value = value;
+        }
+
+        // Public
+
+        @JsonValue
+        public String getValue() {
+            return _value;
+        }
+
+    }
+
+    private static class Request {
+
+        // Fields
+
+        private String text;
+
+        private Object anything;
+
+        private int count;
+
+        private Integer boxedCount;
+
+        private long id;
+
+        private Long boxedId;
+
+        private double score;
+
+        private Double boxedScore;
+
+        private float ratio;
+
+        private Float boxedRatio;
+
+        private boolean active;
+
+        private Boolean boxedActive;
+
+        private Color color;
+
+        private Code code;
+
+        private BigDecimal amount;
+
+    }
+
+    private static class CreatorRequest {
+
+        // Fields
+
+        private final String name;
+
+        private final int size;
+
+        // Constructors
+
+        @JsonCreator
+        private CreatorRequest(@JsonProperty("name") String name, @JsonProperty("size") int size) {
+            this.name = name;
+            this.size = size;
+        }
+
+    }
+
+}
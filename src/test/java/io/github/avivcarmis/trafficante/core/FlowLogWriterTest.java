@@ -0,0 +1,144 @@
+package io.github.avivcarmis.trafficante.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FlowLogWriterTest {
+
+    // Constants
+
+    private static final int PRODUCERS = 8;
+
+    private static final int ENTRIES_PER_PRODUCER = 20_000;
+
+    private static final int TOTAL = PRODUCERS * ENTRIES_PER_PRODUCER;
+
+    // Public
+
+    @Test
+    public void concurrentProducersLoseNothingWhileBufferHasRoom() throws Exception {
+        FlowLogWriter writer = new FlowLogWriter(256 * 1024);
+        produce(writer);
+        assertEquals(0, writer.getDroppedCount());
+        List<Integer> taken = drain(writer);
+        assertEquals(TOTAL, taken.size());
+        assertEquals(TOTAL, new HashSet<>(taken).size());
+        assertInProducerOrder(taken);
+    }
+
+    @Test
+    public void concurrentProducersAndConsumerAccountForEveryEntry() throws Exception {
+        FlowLogWriter writer = new FlowLogWriter(64);
+        List<Integer> taken = new ArrayList<>();
+        CountDownLatch produced = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            while (produced.getCount() > 0) {
+                FlowLogWriter.Entry entry = writer.poll();
+                if (entry != null) {
+                    taken.add((Integer) entry.getBody());
+                }
+            }
+        });
+        consumer.start();
+        produce(writer);
+        produced.countDown();
+        consumer.join(TimeUnit.SECONDS.toMillis(30));
+        taken.addAll(drain(writer));
+        Set<Integer> unique = new HashSet<>(taken);
+        assertEquals(taken.size(), unique.size());
+        assertEquals(TOTAL, taken.size() + writer.getDroppedCount());
+        for (Integer value : unique) {
+            assertTrue(value >= 0 && value < TOTAL);
+        }
+        assertInProducerOrder(taken);
+    }
+
+    @Test
+    public void entriesOfferedToFullBufferAreDroppedAndCounted() {
+        FlowLogWriter writer = new FlowLogWriter(4);
+        for (int i = 0; i < 10; i++) {
+            writer.offer(null, i, null);
+        }
+        assertEquals(6, writer.getDroppedCount());
+        for (int i = 0; i < 4; i++) {
+            FlowLogWriter.Entry entry = writer.poll();
+            assertNotNull(entry);
+            assertEquals(i, entry.getBody());
+        }
+        assertNull(writer.poll());
+        writer.offer(null, 10, null);
+        assertEquals(10, writer.poll().getBody());
+        assertEquals(6, writer.getDroppedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePowerOfTwo() {
+        new FlowLogWriter(100);
+    }
+
+    // Private
+
+    /**
+     * Offers {@link #ENTRIES_PER_PRODUCER} entries from each of {@link #PRODUCERS} threads, started together.
+     * The body of each entry is unique, its producer index times {@link #ENTRIES_PER_PRODUCER} plus its sequence.
+     */
+    private void produce(FlowLogWriter writer) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int base = p * ENTRIES_PER_PRODUCER;
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < ENTRIES_PER_PRODUCER; i++) {
+                    writer.offer(null, base + i, null);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+    }
+
+    private List<Integer> drain(FlowLogWriter writer) {
+        List<Integer> result = new ArrayList<>();
+        FlowLogWriter.Entry entry;
+        while ((entry = writer.poll()) != null) {
+            result.add((Integer) entry.getBody());
+        }
+        return result;
+    }
+
+    /**
+     * Asserts the entries of each producer were taken in the order they were offered
+     */
+    private void assertInProducerOrder(List<Integer> taken) {
+        int[] last = new int[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            last[p] = -1;
+        }
+        for (Integer value : taken) {
+            int producer = value / ENTRIES_PER_PRODUCER;
+            assertTrue(value > last[producer]);
+            last[producer] = value;
+        }
+    }
+
+}
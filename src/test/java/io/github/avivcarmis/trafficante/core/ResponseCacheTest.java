@@ -0,0 +1,95 @@
+package io.github.avivcarmis.trafficante.core;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTest {
+
+    // Constants
+
+    private static final byte[] BODY = new byte[100];
+
+    // Fields
+
+    private ResponseCache _cache;
+
+    // Public
+
+    @Before
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        _cache = new ResponseCache(1, TimeUnit.HOURS, 1024 * 1024);
+        _cache.attach(objectMapper, null);
+    }
+
+    @Test
+    public void replacedEntriesAreReleased() {
+        put(new Request("key"));
+        long weight = _cache.getWeight();
+        for (int i = 0; i < 10_000; i++) {
+            put(new Request("key"));
+        }
+        assertEquals(1, _cache.getSize());
+        assertEquals(weight, _cache.getWeight());
+        assertNotNull(_cache.get(new Request("key")));
+    }
+
+    @Test
+    public void invalidatedEntriesAreReleased() {
+        put(new Request("first"));
+        put(new Request("second"));
+        _cache.invalidate(new Request("first"));
+        assertEquals(1, _cache.getSize());
+        assertNull(_cache.get(new Request("first")));
+        _cache.invalidateAll();
+        assertEquals(0, _cache.getSize());
+        assertEquals(0, _cache.getWeight());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        ResponseCache cache = new ResponseCache(1, TimeUnit.HOURS, 4000);
+        cache.attach(new ObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY), null);
+        for (int i = 0; i < 100; i++) {
+            cache.put(new Request("key" + i), HttpStatus.OK, new LinkedMultiValueMap<>(), BODY);
+            assertNotNull(cache.get(new Request("key0")));
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+        assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        assertNotNull(cache.get(new Request("key0")));
+        assertNotNull(cache.get(new Request("key99")));
+        assertNull(cache.get(new Request("key1")));
+    }
+
+    // Private
+
+    private void put(Request request) {
+        _cache.put(request, HttpStatus.OK, new LinkedMultiValueMap<>(), BODY);
+    }
+
+    // Inner
+
+    private static class Request {
+
+        private final String _key;
+
+        private Request(String key) {
+            _key = key;
+        }
+
+    }
+
+}